@@ -0,0 +1,67 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.converter.PriorityConverter;
+import ch.sintere.task.entities.converter.StatusConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA attribute conversion of {@link Status} and {@link Priority}, run once per column per row read or written.
+ * Each call takes the next constant in turn so that every switch branch is exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttributeConverterBenchmark {
+
+    private final StatusConverter statusConverter = new StatusConverter();
+    private final PriorityConverter priorityConverter = new PriorityConverter();
+    private final Status[] statuses = Status.values();
+    private final Priority[] priorities = Priority.values();
+    private String[] statusColumns;
+    private String[] priorityColumns;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statusColumns = new String[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            statusColumns[i] = statusConverter.convertToDatabaseColumn(statuses[i]);
+        }
+        priorityColumns = new String[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            priorityColumns[i] = priorityConverter.convertToDatabaseColumn(priorities[i]);
+        }
+    }
+
+    @Benchmark
+    public String statusToColumn() {
+        return statusConverter.convertToDatabaseColumn(statuses[next(statuses.length)]);
+    }
+
+    @Benchmark
+    public Status statusFromColumn() {
+        return statusConverter.convertToEntityAttribute(statusColumns[next(statusColumns.length)]);
+    }
+
+    @Benchmark
+    public String priorityToColumn() {
+        return priorityConverter.convertToDatabaseColumn(priorities[next(priorities.length)]);
+    }
+
+    @Benchmark
+    public Priority priorityFromColumn() {
+        return priorityConverter.convertToEntityAttribute(priorityColumns[next(priorityColumns.length)]);
+    }
+
+    // Unsigned remainder keeps the index valid after the counter overflows during long runs
+    private int next(int length) {
+        return Integer.remainderUnsigned(next++, length);
+    }
+}
@@ -0,0 +1,85 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.service.FieldComparator;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.entities.Priority.MEDIUM;
+import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.entities.Status.OPEN;
+
+/**
+ * The former reflective "only status may change" check against the precompiled {@link FieldComparator},
+ * on an update that passes the check (every compared field is read).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldComparatorBenchmark {
+
+    private final FieldComparator<Task, TaskDto> comparator = FieldComparator.of(Task.class, TaskDto.class, Set.of("status"));
+    private Task existing;
+    private TaskDto taskDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var createdAt = LocalDateTime.now();
+        var dueDate = LocalDate.now().plusDays(3);
+        existing = Task.builder()
+                .id(1).title("Benchmark task").status(OPEN).priority(MEDIUM).dueDate(dueDate)
+                .createdAt(createdAt).createdBy("SYSTEM")
+                .build();
+        taskDto = new TaskDto("Benchmark task", DONE, MEDIUM, createdAt, null, dueDate, "SYSTEM", null);
+    }
+
+    @Benchmark
+    public String reflective() {
+        return firstChangedFieldReflectively(existing, taskDto);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return comparator.firstChangedField(existing, taskDto);
+    }
+
+    // The implementation TaskServiceImpl.validateOnlyStatusChanged used before FieldComparator
+    private static String firstChangedFieldReflectively(Task existing, TaskDto dto) {
+        var allowedToChange = Set.of("status");
+        for (var field : Task.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            if (allowedToChange.contains(field.getName())) continue;
+            try {
+                var dtoFieldOpt = getFieldIfExists(dto.getClass(), field.getName());
+                if (dtoFieldOpt.isEmpty()) continue;
+                if (!Objects.equals(field.get(existing), dtoFieldOpt.get().get(dto))) {
+                    return field.getName();
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return null;
+    }
+
+    private static Optional<Field> getFieldIfExists(Class<?> clazz, String fieldName) {
+        try {
+            Field f = clazz.getDeclaredField(fieldName);
+            f.setAccessible(true);
+            return Optional.of(f);
+        } catch (NoSuchFieldException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.TaskApplication;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.repository.TaskRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Boots {@link TaskApplication} on an in-memory H2 database, without Postgres, Keycloak or Kafka, for benchmarks.
+ */
+final class H2TaskApplication {
+
+    private static final String[] PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.r2dbc.url=r2dbc:h2:mem:///benchmark",
+            "spring.r2dbc.username=sa",
+            "spring.r2dbc.password=",
+            "spring.jpa.database=h2",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.flyway.enabled=false",
+            "spring.devtools.restart.enabled=false",
+            // No broker: task change events stay in the outbox
+            "spring.kafka.admin.auto-create=false",
+            "task.outbox.relay.enabled=false",
+            "server.port=0",
+            "logging.level.root=WARN"
+    };
+
+    private H2TaskApplication() {
+    }
+
+    /**
+     * Starts a servlet application on a random port; the security chain needs the servlet JWT decoder.
+     */
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        // Passed as command line arguments so they take precedence over application.yml
+        var args = Stream.concat(Stream.of(PROPERTIES), Stream.of(extraProperties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TaskApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args);
+    }
+
+    /**
+     * Inserts {@code count} tasks cycling through every status and priority; every third task has no due date.
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        var taskRepository = context.getBean(TaskRepository.class);
+        var statuses = Status.values();
+        var priorities = Priority.values();
+        var chunk = new ArrayList<Task>(1_000);
+        for (int i = 0; i < count; i++) {
+            chunk.add(Task.builder()
+                    .title("Benchmark task " + i)
+                    .status(statuses[i % statuses.length])
+                    .priority(priorities[i % priorities.length])
+                    .dueDate(i % 3 == 0 ? null : LocalDate.now().plusDays(i % 365))
+                    .build());
+            if (chunk.size() == 1_000 || i == count - 1) {
+                taskRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+    }
+}
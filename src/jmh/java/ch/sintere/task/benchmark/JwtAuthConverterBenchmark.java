@@ -0,0 +1,71 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.service.JwtAuthConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a decoded access token into an authentication, with the per-token cache
+ * disabled ({@code cacheMaxSize = 0}, the former behavior) and enabled. The token is reused across calls,
+ * as a client does for the lifetime of its access token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthConverterBenchmark {
+
+    private static final String RESOURCE_ID = "conde-rest-api";
+
+    @Param({"0", "10000"})
+    private long cacheMaxSize;
+
+    private JwtAuthConverter jwtAuthConverter;
+    private Jwt jwt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtAuthConverter = new JwtAuthConverter("preferred_username", RESOURCE_ID, cacheMaxSize);
+        var now = Instant.now();
+        // Claim set of a Keycloak access token for a confidential client; the token value has a typical length
+        jwt = Jwt.withTokenValue("eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIiwia2lkIiA6ICJ2dU5aN2QifQ." + "a".repeat(1_100) + "." + "s".repeat(342))
+                .header("alg", "RS256")
+                .header("typ", "JWT")
+                .header("kid", "vuNZ7dBq3y0Kp9Qe4xwG1rN6j2sTzHcLmYfA8uE5oIk")
+                .issuer("http://localhost:8080/realms/conde")
+                .subject("2b1c6a0e-4f3d-4a57-9d8e-1b2c3d4e5f60")
+                .audience(List.of(RESOURCE_ID, "account"))
+                .claim("typ", "Bearer")
+                .claim("azp", RESOURCE_ID)
+                .claim("sid", "8d3f0c2a-5b6e-4f71-a9c8-0e1d2c3b4a59")
+                .claim("acr", "1")
+                .claim("allowed-origins", List.of("http://localhost:3000"))
+                .claim("realm_access", Map.of("roles", List.of("default-roles-conde", "offline_access", "uma_authorization")))
+                .claim("resource_access", Map.of(
+                        RESOURCE_ID, Map.of("roles", List.of("USER", "ADMIN")),
+                        "account", Map.of("roles", List.of("manage-account", "manage-account-links", "view-profile"))))
+                .claim("scope", "openid profile email")
+                .claim("email_verified", true)
+                .claim("name", "Benchmark User")
+                .claim("preferred_username", "benchmark-user")
+                .claim("given_name", "Benchmark")
+                .claim("family_name", "User")
+                .claim("email", "benchmark-user@example.com")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return jwtAuthConverter.convert(jwt);
+    }
+}
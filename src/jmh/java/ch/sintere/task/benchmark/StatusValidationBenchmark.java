@@ -0,0 +1,85 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskStatus;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.mapper.TaskMapper;
+import ch.sintere.task.repository.TaskRepository;
+import ch.sintere.task.service.IdempotencyStore;
+import ch.sintere.task.service.OverdueTracker;
+import ch.sintere.task.service.TaskMetrics;
+import ch.sintere.task.service.TaskOutbox;
+import ch.sintere.task.service.TaskStatistics;
+import ch.sintere.task.service.TaskStatusValidator;
+import ch.sintere.task.service.TaskVersions;
+import ch.sintere.task.service.TitleFilter;
+import ch.sintere.task.service.TitleIndex;
+import ch.sintere.task.service.impl.TaskServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.entities.Priority.MEDIUM;
+import static ch.sintere.task.entities.Status.IN_PROGRESS;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The status-change checks of {@link TaskServiceImpl} on requests that pass them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusValidationBenchmark {
+
+    private TaskStatusValidator taskService;
+    private Task existing;
+    private TaskDto taskDto;
+    private TaskStatus oldStatus;
+    private TaskStatus newStatus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The validators only need the metrics; every other collaborator is a mock they never call
+        taskService = new TaskServiceImpl(
+                mock(TaskRepository.class),
+                mock(TaskMapper.class),
+                mock(IdempotencyStore.class),
+                new TaskMetrics(new SimpleMeterRegistry()),
+                mock(TaskStatistics.class),
+                mock(OverdueTracker.class),
+                mock(TitleIndex.class),
+                mock(TitleFilter.class),
+                mock(TaskVersions.class),
+                mock(TaskOutbox.class),
+                mock(TransactionTemplate.class),
+                mock(CacheManager.class));
+        var createdAt = LocalDateTime.now();
+        var dueDate = LocalDate.now().plusDays(3);
+        existing = Task.builder()
+                .id(1).title("Benchmark task").status(OPEN).priority(MEDIUM).dueDate(dueDate)
+                .createdAt(createdAt).createdBy("SYSTEM")
+                .build();
+        taskDto = new TaskDto("Benchmark task", IN_PROGRESS, MEDIUM, createdAt, null, dueDate, "SYSTEM", null);
+        oldStatus = new TaskStatus(OPEN);
+        newStatus = new TaskStatus(IN_PROGRESS);
+    }
+
+    @Benchmark
+    public void validateOnlyStatusChanged() {
+        taskService.validateOnlyStatusChanged(existing, taskDto);
+    }
+
+    @Benchmark
+    public void validateStatusTransition() {
+        taskService.validateStatusTransition(oldStatus, newStatus);
+    }
+}
@@ -0,0 +1,83 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.config.BinaryFormatConfig.cborObjectMapper;
+import static ch.sintere.task.config.BinaryFormatConfig.smileObjectMapper;
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.OPEN;
+
+/**
+ * A page of tasks as returned by {@code /status} and {@code /priority}, encoded as JSON and as the binary formats
+ * negotiable with {@code Accept}, with the mappers the application uses. Throughput gives the CPU cost; the
+ * {@code bytes} counter (bytes written per second divided by the throughput) the payload size, which each trial
+ * also prints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEncodingBenchmark {
+
+    public enum Format {
+        JSON, SMILE, CBOR;
+
+        ObjectMapper objectMapper() {
+            var builder = Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            return switch (this) {
+                case JSON -> builder.build();
+                case SMILE -> smileObjectMapper(builder);
+                case CBOR -> cborObjectMapper(builder);
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Payload {
+        public long bytes;
+    }
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private Format format;
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectWriter writer;
+    private TaskPage page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        writer = format.objectMapper().writerFor(TaskPage.class);
+        var now = LocalDateTime.now();
+        var tasks = new ArrayList<TaskDto>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDto("Task number " + i, OPEN, HIGH, now, now.plusMinutes(i), LocalDate.now().plusDays(i), "alice", (long) i));
+        }
+        page = new TaskPage(tasks, "MjAyNi0xMC0xOHw0Mg");
+        System.out.printf("%n%s payload for %d tasks: %d bytes%n", format, size, writer.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] serialize(Payload payload) throws JsonProcessingException {
+        var bytes = writer.writeValueAsBytes(page);
+        payload.bytes += bytes.length;
+        return bytes;
+    }
+}
@@ -0,0 +1,56 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.OPEN;
+
+/**
+ * Jackson serialization of task lists as returned by the list endpoints, with the ObjectMapper setup Spring Boot
+ * applies (java.time module, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<TaskDto> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(new TypeReference<List<TaskDto>>() {
+                });
+        var now = LocalDateTime.now();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDto("Task number " + i, OPEN, HIGH, now, now.plusMinutes(i), LocalDate.now().plusDays(i), "alice", null));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(tasks);
+    }
+}
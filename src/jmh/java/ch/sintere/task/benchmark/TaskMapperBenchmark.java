@@ -0,0 +1,50 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.mapper.TaskMapper;
+import ch.sintere.task.mapper.TaskMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.IN_PROGRESS;
+
+/**
+ * MapStruct mapping between {@link Task} and {@link TaskDto}, as done on every write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private final TaskMapper taskMapper = new TaskMapperImpl();
+    private Task task;
+    private TaskDto taskDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var createdAt = LocalDateTime.now();
+        task = Task.builder()
+                .id(42).title("Prepare the quarterly report").status(IN_PROGRESS).priority(HIGH)
+                .dueDate(LocalDate.now().plusDays(7)).createdAt(createdAt).updatedAt(createdAt.plusHours(2)).createdBy("alice")
+                .build();
+        taskDto = taskMapper.toDto(task);
+    }
+
+    @Benchmark
+    public TaskDto toDto() {
+        return taskMapper.toDto(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return taskMapper.toEntity(taskDto);
+    }
+}
@@ -0,0 +1,100 @@
+package ch.sintere.task.benchmark;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskRow;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.mapper.TaskMapper;
+import ch.sintere.task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.sintere.task.entities.Status.OPEN;
+
+/**
+ * Compares the former read path (managed entities + dirty-checking snapshot + MapStruct) with the
+ * constructor-expression projections now used by the repository. Run with the gc profiler to see allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadPathBenchmark {
+
+    private static final int TASK_COUNT = 12_000;
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TaskRepository taskRepository;
+    private TaskMapper taskMapper;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2TaskApplication.start();
+        H2TaskApplication.seed(context, TASK_COUNT);
+        entityManager = context.getBean(EntityManager.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        taskMapper = context.getBean(TaskMapper.class);
+        var transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDto> pageViaEntities() {
+        return readWriteTransaction.execute(status -> entityManager
+                .createQuery("SELECT tk FROM Task tk WHERE tk.status = :status AND tk.id > 0 ORDER BY tk.id", Task.class)
+                .setParameter("status", OPEN)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(taskMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TaskDto> pageViaProjection() {
+        return readOnlyTransaction.execute(status -> taskRepository
+                .findRowsByStatusAfterId(OPEN, 0, Limit.of(pageSize))
+                .stream()
+                .map(TaskRow::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public TaskDto findByIdViaEntity() {
+        var id = nextId();
+        return readWriteTransaction.execute(status -> taskMapper.toDto(entityManager.find(Task.class, id)));
+    }
+
+    @Benchmark
+    public TaskDto findByIdViaProjection() {
+        var id = nextId();
+        return readOnlyTransaction.execute(status -> taskRepository.findDtoById(id).orElseThrow());
+    }
+
+    private int nextId() {
+        nextId = nextId % TASK_COUNT + 1;
+        return nextId;
+    }
+}
@@ -0,0 +1,191 @@
+package ch.sintere.task.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start at a fixed arrival rate whatever the response times are,
+ * and latency is measured from the intended start, so a stalled server cannot hide its queueing delay
+ * (no coordinated omission).
+ */
+final class LoadDriver {
+
+    private static final String[] LISTED_STATUSES = {"OPEN", "IN_PROGRESS", "PENDING"};
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final String authorization;
+    private final Fixtures fixtures;
+    private final AtomicLong createdTasks = new AtomicLong();
+    private final AtomicBoolean nextBulkRaisesPriority = new AtomicBoolean(true);
+
+    /**
+     * Tasks seeded before the run. {@code patchTargets} hold, per task, one {@code PATCH /status} body for each
+     * status in {@link #LISTED_STATUSES}; they are HIGH priority, which bulk-priority never touches.
+     */
+    record Fixtures(int[] taskIds, List<PatchTarget> patchTargets) {
+    }
+
+    record PatchTarget(int id, String[] bodies) {
+    }
+
+    record EndpointReport(long requests, long errors, double throughputPerSecond,
+                          double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    LoadDriver(URI baseUri, String accessToken, Fixtures fixtures) {
+        this.baseUri = baseUri;
+        this.authorization = "Bearer " + accessToken;
+        this.fixtures = fixtures;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Runs {@code mix} at {@code rate} requests per second for {@code duration} and returns the figures per
+     * operation, in mix order.
+     */
+    Map<String, EndpointReport> run(Map<Operation, Integer> mix, int rate, Duration duration) throws InterruptedException {
+        var stats = new EnumMap<Operation, EndpointStats>(Operation.class);
+        mix.keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        var picker = weightedPicker(mix);
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var start = System.nanoTime();
+            var end = start + duration.toNanos();
+            for (long i = 0; ; i++) {
+                var intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                var wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                var operation = picker.get(ThreadLocalRandom.current().nextInt(picker.size()));
+                executor.execute(() -> execute(operation, intendedStart, stats.get(operation)));
+            }
+        }
+
+        var seconds = duration.toMillis() / 1_000.0;
+        var reports = new LinkedHashMap<String, EndpointReport>();
+        stats.forEach((operation, endpointStats) -> reports.put(operation.key(), endpointStats.report(seconds)));
+        return reports;
+    }
+
+    private void execute(Operation operation, long intendedStart, EndpointStats stats) {
+        var succeeded = false;
+        try {
+            var response = httpClient.send(request(operation), HttpResponse.BodyHandlers.discarding());
+            succeeded = response.statusCode() < 400;
+        } catch (IOException e) {
+            // Counted as an error below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stats.record(System.nanoTime() - intendedStart, succeeded);
+    }
+
+    private HttpRequest request(Operation operation) {
+        var random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CREATE -> json("/api/v1/tasks")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"title":"Load test task %d-%d","status":"OPEN","priority":"LOW"}"""
+                            .formatted(ProcessHandle.current().pid(), createdTasks.incrementAndGet())))
+                    .build();
+            case GET -> authorized("/api/v1/tasks/" + fixtures.taskIds()[random.nextInt(fixtures.taskIds().length)])
+                    .GET()
+                    .build();
+            case LIST_BY_STATUS -> authorized("/api/v1/tasks/status?limit=50&status="
+                    + LISTED_STATUSES[random.nextInt(LISTED_STATUSES.length)])
+                    .GET()
+                    .build();
+            case PATCH_STATUS -> {
+                var target = fixtures.patchTargets().get(random.nextInt(fixtures.patchTargets().size()));
+                yield json("/api/v1/tasks/" + target.id() + "/status")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(target.bodies()[random.nextInt(target.bodies().length)]))
+                        .build();
+            }
+            case BULK_PRIORITY -> {
+                // Alternate the direction so the LOW and MEDIUM populations stay comparable over the run
+                var raise = nextBulkRaisesPriority.getAndSet(!nextBulkRaisesPriority.get());
+                yield json("/api/v1/tasks/priority")
+                        .PUT(HttpRequest.BodyPublishers.ofString(raise
+                                ? "{\"oldPriority\":\"LOW\",\"newPriority\":\"MEDIUM\"}"
+                                : "{\"oldPriority\":\"MEDIUM\",\"newPriority\":\"LOW\"}"))
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return authorized(path).header("Content-Type", "application/json");
+    }
+
+    private static List<Operation> weightedPicker(Map<Operation, Integer> mix) {
+        var picker = new ArrayList<Operation>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                picker.add(operation);
+            }
+        });
+        return picker;
+    }
+
+    private static final class EndpointStats {
+
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, boolean succeeded) {
+            latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+
+        EndpointReport report(double seconds) {
+            var requests = latencyMicros.getTotalCount();
+            return new EndpointReport(requests, errors.sum(), requests / seconds,
+                    millis(latencyMicros.getValueAtPercentile(50)),
+                    millis(latencyMicros.getValueAtPercentile(99)),
+                    millis(latencyMicros.getValueAtPercentile(99.9)),
+                    millis(latencyMicros.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package ch.sintere.task.loadtest;
+
+import ch.sintere.task.TaskApplication;
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.mapper.TaskMapper;
+import ch.sintere.task.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test: boots {@link TaskApplication} on in-memory H2 with a local JWT issuer, seeds tasks,
+ * drives a mix of endpoints at a fixed arrival rate and writes latency percentiles and throughput per endpoint
+ * to a JSON report.
+ * <p>
+ * Arguments are {@code key=value} pairs, all optional:
+ * {@code rate} (requests/s), {@code duration} and {@code warmup} (e.g. {@code 60s}, {@code 2m}),
+ * {@code mix} (e.g. {@code create:20,get:40,list-by-status:25,patch-status:14,bulk-priority:1}),
+ * {@code seed-tasks}, {@code threads} ({@code virtual}, {@code platform} or both, comma separated, to compare
+ * request execution models; each gets a fresh application) and {@code report} (output file).
+ * Run with {@code mvn -Ploadtest verify -DskipTests [-Dloadtest.rate=500 ...]}.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "rate", "200",
+            "duration", "60s",
+            "warmup", "15s",
+            "mix", "create:20,get:40,list-by-status:25,patch-status:14,bulk-priority:1",
+            "seed-tasks", "10000",
+            "threads", "virtual",
+            "report", "target/loadtest-report.json");
+
+    private static final String RESOURCE_ID = "conde-rest-api";
+
+    private static final String[] PROPERTIES = {
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.r2dbc.username=sa",
+            "spring.r2dbc.password=",
+            "spring.jpa.database=h2",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.flyway.enabled=false",
+            "spring.security.oauth2.resource-server.jwt.issuer-uri=" + LocalJwtIssuer.ISSUER,
+            "jwt.auth.converter.resource-id=" + RESOURCE_ID,
+            "server.port=0",
+            "logging.level.root=WARN"
+    };
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var arguments = parseArguments(args);
+        var mix = parseMix(arguments.get("mix"));
+        var rate = Integer.parseInt(arguments.get("rate"));
+        var duration = parseDuration(arguments.get("duration"));
+        var warmup = parseDuration(arguments.get("warmup"));
+        var issuer = new LocalJwtIssuer(RESOURCE_ID);
+
+        var report = new LinkedHashMap<String, Object>();
+        report.put("rate", rate);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("mix", arguments.get("mix"));
+        var runs = new LinkedHashMap<String, Map<String, LoadDriver.EndpointReport>>();
+        report.put("runs", runs);
+        ObjectMapper objectMapper = null;
+
+        for (var threads : arguments.get("threads").split(",")) {
+            var virtualThreads = switch (threads.trim()) {
+                case "virtual" -> true;
+                case "platform" -> false;
+                default -> throw new IllegalArgumentException("Unknown threads " + threads + ", expected virtual or platform");
+            };
+            try (var context = start(issuer, threads.trim(), virtualThreads)) {
+                var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                var fixtures = seed(context, Integer.parseInt(arguments.get("seed-tasks")));
+                var driver = new LoadDriver(URI.create("http://localhost:" + port), issuer.issue("loadtest-user", Duration.ofHours(1)), fixtures);
+
+                if (!warmup.isZero()) {
+                    System.out.printf("[%s threads] Warming up for %s at %d req/s%n", threads.trim(), warmup, rate);
+                    driver.run(mix, rate, warmup);
+                }
+                System.out.printf("[%s threads] Measuring for %s at %d req/s, mix %s%n", threads.trim(), duration, rate, arguments.get("mix"));
+                var endpoints = driver.run(mix, rate, duration);
+                runs.put(threads.trim(), endpoints);
+                objectMapper = context.getBean(ObjectMapper.class);
+            }
+        }
+
+        var reportFile = Path.of(arguments.get("report"));
+        writeReport(objectMapper, report, reportFile);
+        runs.forEach(LoadTest::printSummary);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(LocalJwtIssuer issuer, String name, boolean virtualThreads) {
+        // Devtools reads this before the environment exists; a restart would re-run main with the Spring arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        var args = Stream.concat(Stream.of(PROPERTIES),
+                        Stream.of("spring.datasource.url=jdbc:h2:mem:loadtest-" + name + ";DB_CLOSE_DELAY=-1",
+                                "spring.r2dbc.url=r2dbc:h2:mem:///loadtest-" + name,
+                                "spring.threads.virtual.enabled=" + virtualThreads))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TaskApplication.class)
+                .web(WebApplicationType.SERVLET)
+                // Registered before the context refreshes, so Boot's issuer-backed decoder backs off
+                .initializers(context -> context.getBeanFactory().registerSingleton("jwtDecoder", issuer.jwtDecoder()))
+                .run(args);
+    }
+
+    /**
+     * Seeds {@code count} tasks across the listed statuses. Every fourth task is HIGH priority and becomes a
+     * patch-status target; the others alternate LOW and MEDIUM for bulk-priority to move.
+     */
+    private static LoadDriver.Fixtures seed(ConfigurableApplicationContext context, int count) throws IOException {
+        var taskRepository = context.getBean(TaskRepository.class);
+        var taskMapper = context.getBean(TaskMapper.class);
+        var objectMapper = context.getBean(ObjectMapper.class);
+        var statuses = List.of(Status.OPEN, Status.IN_PROGRESS, Status.PENDING);
+        var chunk = new ArrayList<Task>(1_000);
+        for (int i = 0; i < count; i++) {
+            var priority = i % 4 == 0 ? Priority.HIGH : i % 2 == 0 ? Priority.MEDIUM : Priority.LOW;
+            chunk.add(Task.builder()
+                    .title("Seeded task " + i)
+                    .status(statuses.get(i % statuses.size()))
+                    .priority(priority)
+                    .build());
+            if (chunk.size() == 1_000 || i == count - 1) {
+                taskRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+
+        // Read back so that createdAt carries the database precision the status check compares against
+        var tasks = taskRepository.findAll();
+        var ids = tasks.stream().mapToInt(Task::getId).toArray();
+        var patchTargets = new ArrayList<LoadDriver.PatchTarget>();
+        for (var task : tasks) {
+            if (task.getPriority() != Priority.HIGH) {
+                continue;
+            }
+            var bodies = new String[statuses.size()];
+            for (int i = 0; i < bodies.length; i++) {
+                var taskDto = taskMapper.toDto(task);
+                bodies[i] = objectMapper.writeValueAsString(new TaskDto(taskDto.title(), statuses.get(i),
+                        taskDto.priority(), taskDto.createdAt(), taskDto.updatedAt(), taskDto.dueDate(), taskDto.createdBy(), null));
+            }
+            patchTargets.add(new LoadDriver.PatchTarget(task.getId(), bodies));
+        }
+        return new LoadDriver.Fixtures(ids, patchTargets);
+    }
+
+    private static void writeReport(ObjectMapper objectMapper, Map<String, Object> report, Path reportFile) throws IOException {
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+    }
+
+    private static void printSummary(String threads, Map<String, LoadDriver.EndpointReport> endpoints) {
+        System.out.printf("%s threads%n", threads);
+        System.out.printf("%-15s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach((endpoint, report) -> System.out.printf(Locale.ROOT, "%-15s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, report.requests(), report.errors(), report.throughputPerSecond(),
+                report.p50Millis(), report.p99Millis(), report.p999Millis(), report.maxMillis()));
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        var arguments = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator < 1 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected key=value with key in " + DEFAULTS.keySet());
+            }
+            arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return arguments;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new LinkedHashMap<Operation, Integer>();
+        Arrays.stream(mix.split(",")).map(String::trim).filter(entry -> !entry.isEmpty()).forEach(entry -> {
+            var parts = entry.split(":");
+            var weight = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        });
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix selects no operation: " + mix);
+        }
+        return weights;
+    }
+
+    private static Duration parseDuration(String duration) {
+        return Duration.parse("PT" + duration.toUpperCase(Locale.ROOT));
+    }
+}
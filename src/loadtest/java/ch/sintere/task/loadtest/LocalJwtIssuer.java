@@ -0,0 +1,73 @@
+package ch.sintere.task.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs Keycloak-shaped access tokens with an RSA key generated in process, and provides the matching
+ * {@link JwtDecoder}, so the full security filter chain runs without contacting an issuer.
+ */
+final class LocalJwtIssuer {
+
+    static final String ISSUER = "http://localhost/realms/loadtest";
+
+    private final RSAKey signingKey;
+    private final String resourceId;
+
+    LocalJwtIssuer(String resourceId) {
+        this.resourceId = resourceId;
+        try {
+            this.signingKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate the signing key", e);
+        }
+    }
+
+    JwtDecoder jwtDecoder() {
+        try {
+            return NimbusJwtDecoder.withPublicKey(signingKey.toRSAPublicKey()).build();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot export the public key", e);
+        }
+    }
+
+    String issue(String username, Duration lifetime) {
+        var now = Instant.now();
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(UUID.randomUUID().toString())
+                .audience(List.of(resourceId, "account"))
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(lifetime)))
+                .claim("typ", "Bearer")
+                .claim("azp", resourceId)
+                .claim("scope", "openid profile email")
+                .claim("preferred_username", username)
+                .claim("realm_access", Map.of("roles", List.of("default-roles-loadtest", "offline_access")))
+                .claim("resource_access", Map.of(resourceId, Map.of("roles", List.of("USER"))))
+                .build();
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign the token", e);
+        }
+        return jwt.serialize();
+    }
+}
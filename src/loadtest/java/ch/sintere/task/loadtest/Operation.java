@@ -0,0 +1,32 @@
+package ch.sintere.task.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The endpoints a load test can drive, named as in the {@code mix} argument.
+ */
+enum Operation {
+    CREATE("create"),
+    GET("get"),
+    LIST_BY_STATUS("list-by-status"),
+    PATCH_STATUS("patch-status"),
+    BULK_PRIORITY("bulk-priority");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + key + ", expected one of "
+                        + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
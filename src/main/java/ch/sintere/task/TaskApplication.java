@@ -2,10 +2,14 @@ package ch.sintere.task;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC only serves reads: a second (reactive) transaction manager would make @Transactional ambiguous
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
+@EnableScheduling
 public class TaskApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,69 @@
+package ch.sintere.task.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Compact binary alternatives to JSON, negotiated through the {@code Accept} and {@code Content-Type} headers:
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}). JSON stays the default.
+ * <p>
+ * Both reuse the Jackson setup of the JSON mapper, but write dates as arrays of numbers instead of ISO strings.
+ * Smile also refers back to the field names and short strings (status, priority, createdBy) it already wrote, so a
+ * list pays for each of them once; CBOR repeats them but has a decoder on every platform.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * A stream of CBOR values one after the other (RFC 8742), as the export writes them.
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    /**
+     * Replaces the Smile converter Spring MVC registers by default, which does not get the Spring Boot Jackson setup.
+     *
+     * @param builder the (prototype) builder Spring Boot configures from {@code spring.jackson.*}.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileObjectMapper(builder));
+    }
+
+    /**
+     * Replaces the CBOR converter Spring MVC registers by default, which does not get the Spring Boot Jackson setup.
+     *
+     * @param builder the (prototype) builder Spring Boot configures from {@code spring.jackson.*}.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborObjectMapper(builder));
+    }
+
+    public static ObjectMapper smileObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        var factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static ObjectMapper cborObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package ch.sintere.task.config;
+
+import ch.sintere.task.service.DatabaseBulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching(order = DatabaseBulkhead.ORDER - 1)
+public class CacheConfig {
+
+    public static final String TASKS_BY_ID = "tasksById";
+
+    /**
+     * Provides the cache manager holding the {@link #TASKS_BY_ID} cache.
+     * <p>
+     * Evictions issued inside a transaction are deferred until it commits, and dropped when it rolls back.
+     * That does not stop a concurrent read which loaded the row before the commit from putting the
+     * pre-update value back after the eviction: such an entry stays stale for at most the
+     * {@code expireAfterWrite} of the spec (60s by default).
+     *
+     * @param spec the Caffeine spec (size, TTL, stats) of the tasks cache.
+     * @return the transaction-aware {@link CacheManager}.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${task.cache.tasks-by-id}") String spec) {
+        var caffeineCacheManager = new CaffeineCacheManager(TASKS_BY_ID);
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
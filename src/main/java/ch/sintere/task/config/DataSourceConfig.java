@@ -0,0 +1,80 @@
+package ch.sintere.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+public class DataSourceConfig {
+
+    /**
+     * Provides the JDBC pool of the primary database.
+     * <p>
+     * Spring Boot backs its own DataSource off as soon as an R2DBC ConnectionFactory exists, so the
+     * Hikari pool used by the write path is declared here from the usual {@code spring.datasource} properties.
+     *
+     * @param properties the {@code spring.datasource} properties.
+     * @return the Hikari {@link DataSource}.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Provides the DataSource behind JPA, routing read-only transactions to the {@code task.datasource.replicas}.
+     * Replica pools get the settings of the primary pool, with read-only connections.
+     *
+     * @param primaryDataSource the primary pool.
+     * @param replicaProperties the {@code task.datasource} properties.
+     * @param readYourWrites    the users to keep on the primary.
+     * @return the routing {@link DataSource}.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaProperties replicaProperties,
+                                 ReadYourWrites readYourWrites) {
+        var replicas = IntStream.range(0, replicaProperties.replicas().size())
+                .mapToObj(index -> replicaDataSource(primaryDataSource, replicaProperties.replicas().get(index), index + 1))
+                .toList();
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites);
+    }
+
+    /**
+     * Provides the transaction listener tracking who wrote recently; Spring Boot registers it with the
+     * transaction manager.
+     *
+     * @param replicaProperties the {@code task.datasource} properties.
+     * @return the {@link ReadYourWrites} listener.
+     */
+    @Bean
+    ReadYourWrites readYourWrites(ReplicaProperties replicaProperties) {
+        return new ReadYourWrites(replicaProperties.replicas().isEmpty() ? Duration.ZERO : replicaProperties.readYourWrites());
+    }
+
+    private static HikariDataSource replicaDataSource(HikariDataSource primary, ReplicaProperties.Replica replica, int number) {
+        var dataSource = new HikariDataSource();
+        primary.copyStateTo(dataSource);
+        dataSource.setPoolName("replica-" + number);
+        dataSource.setJdbcUrl(replica.url());
+        if (replica.username() != null) {
+            dataSource.setUsername(replica.username());
+        }
+        if (replica.password() != null) {
+            dataSource.setPassword(replica.password());
+        }
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
@@ -0,0 +1,29 @@
+package ch.sintere.task.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Declares the topic the outbox relay publishes task change events to, created at startup if missing.
+     * <p>
+     * Events are keyed by task id, so the events of one task stay in one partition. They are not in write order
+     * there, though: each instance allocates outbox ids in blocks of 50 and the relays of several instances publish
+     * concurrently, so neither the outbox id nor the offset follows commit order. Consumers order the events of a
+     * task by {@code task.version}, as described on {@link ch.sintere.task.event.TaskChangedEvent}.
+     *
+     * @param topic      the topic name.
+     * @param partitions the number of partitions, which bounds the number of consumers sharing the events.
+     * @return the {@link NewTopic} picked up by the Kafka admin.
+     */
+    @Bean
+    public NewTopic taskEventsTopic(@Value("${task.outbox.topic:task-events}") String topic,
+                                    @Value("${task.outbox.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+}
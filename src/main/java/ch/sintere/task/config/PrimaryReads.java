@@ -0,0 +1,32 @@
+package ch.sintere.task.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads on the primary even in a read-only transaction, for results that are remembered beyond the request:
+ * a task put in the cache, or a page stamped with a change version read before the query. A lagging replica would
+ * otherwise have them serve its stale rows (and answer 304s against them) long after it caught up.
+ * <p>
+ * Only the first statement of a transaction picks its connection, so the read must open it.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        var outer = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.set(outer);
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+}
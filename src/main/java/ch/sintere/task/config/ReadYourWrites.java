@@ -0,0 +1,58 @@
+package ch.sintere.task.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers the users who committed a read-write transaction within the last {@code task.datasource.read-your-writes},
+ * so that {@link ReplicaRoutingDataSource} keeps their reads on the primary until the replicas have caught up.
+ * Background work without an authenticated user is never pinned.
+ */
+final class ReadYourWrites implements TransactionExecutionListener {
+
+    private static final int MAX_WRITERS = 100_000;
+
+    // Null when stickiness is off
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWrites(Duration window) {
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAX_WRITERS)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (recentWriters == null || commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        var user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    boolean recentlyWrote() {
+        if (recentWriters == null) {
+            return false;
+        }
+        var user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
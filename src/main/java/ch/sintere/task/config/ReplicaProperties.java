@@ -0,0 +1,26 @@
+package ch.sintere.task.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas taking the read-only transactions off the primary {@code spring.datasource}.
+ *
+ * @param replicas       the replicas, each pooled with the {@code spring.datasource.hikari} settings; without any,
+ *                       every transaction goes to the primary.
+ * @param readYourWrites how long the read-only transactions of a user who committed a write keep going to the
+ *                       primary, to outlast the replication lag; zero turns it off.
+ */
+@ConfigurationProperties("task.datasource")
+public record ReplicaProperties(@DefaultValue List<Replica> replicas,
+                               @DefaultValue("0s") Duration readYourWrites) {
+
+    /**
+     * A replica; {@code username} and {@code password} default to those of the primary.
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,70 @@
+package ch.sintere.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, in turn, and everything else to the primary.
+ * <p>
+ * Connections are only fetched at the first statement, once the transaction has marked them read-only: until then
+ * the pool they come from is not known. A user who just wrote (see {@link ReadYourWrites}) reads from the primary,
+ * and so do the reads whose results outlive the request (see {@link PrimaryReads}).
+ * With open-in-view off, each transaction of a request fetches its own connection, so the read-only ones are
+ * routed even after a write in the same request. Closing it closes the replica pools; the primary pool is a bean of
+ * its own.
+ */
+final class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final List<HikariDataSource> replicas;
+
+    ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites) {
+        super(primary);
+        this.replicas = replicas;
+        if (!replicas.isEmpty()) {
+            setReadOnlyDataSource(new ReadOnlyRouter(primary, replicas, readYourWrites));
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private static final class ReadOnlyRouter extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final List<? extends DataSource> replicas;
+        private final ReadYourWrites readYourWrites;
+        private final AtomicInteger next = new AtomicInteger();
+
+        private ReadOnlyRouter(DataSource primary, List<? extends DataSource> replicas, ReadYourWrites readYourWrites) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.readYourWrites = readYourWrites;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return select().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return select().getConnection(username, password);
+        }
+
+        private DataSource select() {
+            if (PrimaryReads.isActive() || readYourWrites.recentlyWrote()) {
+                return primary;
+            }
+            return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ch.sintere.task.controller;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.exception.TaskNotFoundException;
+import ch.sintere.task.repository.ReactiveTaskRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static java.lang.String.format;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Read side of {@link TaskController} served over R2DBC. Lists are streamed as newline-delimited JSON,
+ * one task per line, pulling rows from the database only as fast as the client reads them.
+ */
+@RestController
+@RequestMapping("/api/v2/tasks")
+@RequiredArgsConstructor
+public class ReactiveTaskController {
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+
+    @Operation(
+            description = "Find Task by Id",
+            summary = "Find Task by Id.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Not found",
+                            responseCode = "404"
+                    )
+            }
+    )
+    @GetMapping("/{id}")
+    public Mono<TaskDto> findTaskById(@PathVariable("id") Integer id) {
+        return reactiveTaskRepository.findDtoById(id)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(format("Task not found by the provided Id:: %s", id))));
+    }
+
+    @Operation(
+            description = "Stream the Tasks by status as newline-delimited JSON, ordered by id",
+            summary = "Stream the Tasks by status.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
+                    )
+            }
+    )
+    @GetMapping(value = "/status", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDto> findByStatus(@Valid @RequestParam("status") Status status) {
+        return reactiveTaskRepository.findDtosByStatus(status);
+    }
+
+    @Operation(
+            description = "Stream the Tasks by priority as newline-delimited JSON, ordered by id",
+            summary = "Stream the Tasks by priority.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
+                    )
+            }
+    )
+    @GetMapping(value = "/priority", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDto> findByPriority(@Valid @RequestParam("priority") Priority priority) {
+        return reactiveTaskRepository.findDtosByPriority(priority);
+    }
+
+    @Operation(
+            description = "Export all Tasks as newline-delimited JSON, ordered by id",
+            summary = "Export all Tasks.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDto> exportTasks() {
+        return reactiveTaskRepository.findAllDtos();
+    }
+}
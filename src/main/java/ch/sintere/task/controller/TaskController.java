@@ -1,50 +1,115 @@
 package ch.sintere.task.controller;
 
 import ch.sintere.task.dto.PriorityUpdateRequest;
+import ch.sintere.task.dto.PriorityUpdateSummary;
+import ch.sintere.task.dto.TaskBatchResult;
 import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskPage;
+import ch.sintere.task.dto.TaskSort;
+import ch.sintere.task.dto.TaskStats;
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
+import ch.sintere.task.service.TaskChangeFeed;
 import ch.sintere.task.service.TaskService;
+import ch.sintere.task.service.TaskStatistics;
+import ch.sintere.task.service.TaskVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static ch.sintere.task.config.BinaryFormatConfig.APPLICATION_CBOR_SEQ;
+import static ch.sintere.task.config.BinaryFormatConfig.APPLICATION_CBOR_SEQ_VALUE;
+import static ch.sintere.task.config.BinaryFormatConfig.APPLICATION_SMILE;
+import static ch.sintere.task.config.BinaryFormatConfig.APPLICATION_SMILE_VALUE;
+import static ch.sintere.task.controller.TaskETags.expectedVersion;
+import static ch.sintere.task.controller.TaskETags.withETag;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
 @RestController
 @RequestMapping("/api/v1/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     private final TaskService taskService;
+    private final TaskStatistics taskStatistics;
+    private final TaskVersions taskVersions;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+    private final MappingJackson2CborHttpMessageConverter cborConverter;
+    private final TaskEventStream taskEventStream;
 
     @Operation(
-            description = "Create New Task",
+            description = "Create New Task. Retries carrying the same Idempotency-Key return the originally created Task",
             summary = "Create New Task",
             responses = {
                     @ApiResponse(
                             description = "Created",
                             responseCode = "201"
+                    ),
+                    @ApiResponse(
+                            description = "Conflict",
+                            responseCode = "409"
+                    ),
+                    @ApiResponse(
+                            description = "Idempotency-Key reused for another Task",
+                            responseCode = "422"
                     )
             }
     )
     @PostMapping
-    public ResponseEntity<TaskDto> addTask(@Valid @RequestBody TaskDto taskDto) {
-        return new ResponseEntity<>(taskService.addTask(taskDto), HttpStatus.CREATED);
+    public ResponseEntity<TaskDto> addTask(@Valid @RequestBody TaskDto taskDto,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), taskService.addTask(taskDto, idempotencyKey));
+    }
+
+    @Operation(
+            description = "Create several Tasks at once. Each item is reported as CREATED or CONFLICT (title already taken)",
+            summary = "Create Tasks in batch",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> addTasks(@Valid @RequestBody List<@Valid TaskDto> taskDtos) {
+        return ResponseEntity.ok(taskService.addTasks(taskDtos));
     }
 
     @Operation(
-            description = "Find Task by Id",
+            description = "Find Task by Id. With If-None-Match (the ETag of a previous response) an unchanged Task "
+                    + "is answered with 304 and no body",
             summary = "Find Task by Id.",
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200"
                     ),
+                    @ApiResponse(
+                            description = "Not modified",
+                            responseCode = "304"
+                    ),
                     @ApiResponse(
                             description = "Conflict",
                             responseCode = "409"
@@ -52,42 +117,230 @@ public class TaskController {
             }
     )
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> findTaskById(@PathVariable("id") Integer id) {
-        return ResponseEntity.ok(taskService.findTaskById(id));
+    public ResponseEntity<TaskDto> findTaskById(@PathVariable("id") Integer id, WebRequest request) {
+        // Answered from the cache when possible; otherwise the 304 is decided on the ETag of the loaded task
+        var cachedVersion = taskVersions.cachedVersion(id);
+        if (cachedVersion != null && request.checkNotModified(TaskETags.of(cachedVersion))) {
+            return null;
+        }
+        return withETag(ResponseEntity.ok(), taskService.findTaskById(id));
     }
 
     @Operation(
-            description = "Get all Tasks by status",
-            summary = "Get all the Tasks by status.",
+            description = "Get a page of Tasks by status. Pass the returned nextCursor as 'after' to fetch the next page. "
+                    + "With If-None-Match (the ETag of a previous response) an unchanged page is answered with 304",
+            summary = "Get the Tasks by status, page by page.",
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Not modified",
+                            responseCode = "304"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
                     )
             }
     )
     @GetMapping("/status")
-    public ResponseEntity<List<TaskDto>> findByStatus(@Valid @RequestParam("status") Status status) {
-        return ResponseEntity.ok(taskService.findByStatus(status));
+    public ResponseEntity<TaskPage> findByStatus(@Valid @RequestParam("status") Status status,
+                                                 @RequestParam(value = "after", required = false) String after,
+                                                 @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                                 @RequestParam(value = "sort", defaultValue = "ID") TaskSort sort,
+                                                 WebRequest request) {
+        // Taken before the query: a write committing meanwhile changes it, so the page can only be labelled older
+        var eTag = TaskETags.ofList(taskVersions.ofStatus(status));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.findByStatus(status, sort, after, limit));
     }
 
     @Operation(
-            description = "Get all Tasks by priority",
-            summary = "Get all the Tasks by priority.",
+            description = "Get a page of Tasks by priority. Pass the returned nextCursor as 'after' to fetch the next page. "
+                    + "With If-None-Match (the ETag of a previous response) an unchanged page is answered with 304",
+            summary = "Get the Tasks by priority, page by page.",
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Not modified",
+                            responseCode = "304"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
                     )
             }
     )
     @GetMapping("/priority")
-    public ResponseEntity<List<TaskDto>> findByPriority(@Valid @RequestParam("priority") Priority priority) {
-        return ResponseEntity.ok(taskService.findByPriority(priority));
+    public ResponseEntity<TaskPage> findByPriority(@Valid @RequestParam("priority") Priority priority,
+                                                   @RequestParam(value = "after", required = false) String after,
+                                                   @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                                   @RequestParam(value = "sort", defaultValue = "ID") TaskSort sort,
+                                                   WebRequest request) {
+        var eTag = TaskETags.ofList(taskVersions.ofPriority(priority));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(taskService.findByPriority(priority, sort, after, limit));
     }
 
     @Operation(
-            description = "Update Task by Id",
+            description = "Search Tasks by title, case-insensitively: titles starting with q first, then titles "
+                    + "containing it. Pass the returned nextCursor as 'after' to fetch the next page.",
+            summary = "Search the Tasks by title, page by page.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
+                    )
+            }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<TaskPage> searchByTitle(@RequestParam("q") String query,
+                                                  @RequestParam(value = "after", required = false) String after,
+                                                  @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(taskService.searchByTitle(query, after, limit));
+    }
+
+    @Operation(
+            description = "Get a page of the Tasks past their due date and not DONE, oldest due date first. "
+                    + "Pass the returned nextCursor as 'after' to fetch the next page.",
+            summary = "Get the overdue Tasks, page by page.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Bad request",
+                            responseCode = "400"
+                    )
+            }
+    )
+    @GetMapping("/overdue")
+    public ResponseEntity<TaskPage> findOverdue(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(taskService.findOverdue(after, limit));
+    }
+
+    @Operation(
+            description = "Count the Tasks per status and priority, with the overdue ones, from in-memory counters",
+            summary = "Get Task statistics.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getStats() {
+        return ResponseEntity.ok(taskStatistics.snapshot());
+    }
+
+    @Operation(
+            description = "Stream task changes as server-sent events, optionally only those of Tasks having the given "
+                    + "status and/or priority before or after the change. Reconnecting with Last-Event-ID replays the "
+                    + "changes missed meanwhile; a 'reset' event tells that some were lost and the lists must be reloaded",
+            summary = "Stream Task changes.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@RequestParam(value = "status", required = false) Status status,
+                                  @RequestParam(value = "priority", required = false) Priority priority,
+                                  @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventStream.subscribe(new TaskChangeFeed.Filter(status, priority), lastEventId);
+    }
+
+    @Operation(
+            description = "Export all Tasks as newline-delimited JSON, streamed row by row",
+            summary = "Export all Tasks.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        return export(objectMapper, APPLICATION_NDJSON);
+    }
+
+    @Operation(
+            description = "Export all Tasks as a stream of Smile values, streamed row by row",
+            summary = "Export all Tasks as Smile.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping(value = "/export", produces = APPLICATION_SMILE_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksAsSmile() {
+        return export(smileConverter.getObjectMapper(), APPLICATION_SMILE);
+    }
+
+    @Operation(
+            description = "Export all Tasks as a CBOR sequence, streamed row by row",
+            summary = "Export all Tasks as CBOR.",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    )
+            }
+    )
+    @GetMapping(value = "/export", produces = APPLICATION_CBOR_SEQ_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksAsCbor() {
+        return export(cborConverter.getObjectMapper(), APPLICATION_CBOR_SEQ);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ObjectMapper mapper, MediaType contentType) {
+        // Flushing after every row would turn each task into its own network write
+        var writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        var newlineDelimited = contentType.equals(APPLICATION_NDJSON);
+        StreamingResponseBody body = outputStream -> {
+            // Binary values delimit themselves; a Smile generator also keeps sharing names across rows
+            try (var generator = writer.createGenerator(outputStream)) {
+                if (newlineDelimited) {
+                    generator.setRootValueSeparator(null);
+                }
+                taskService.exportTasks(taskDto -> {
+                    try {
+                        writer.writeValue(generator, taskDto);
+                        if (newlineDelimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    @Operation(
+            description = "Update Task by Id. With If-Match (the ETag of a previous response) the update is "
+                    + "applied only if the Task has not changed since",
             summary = "Update Task by Id.",
             responses = {
                     @ApiResponse(
@@ -97,16 +350,22 @@ public class TaskController {
                     @ApiResponse(
                             description = "Conflict",
                             responseCode = "409"
+                    ),
+                    @ApiResponse(
+                            description = "Task changed since the If-Match version",
+                            responseCode = "412"
                     )
             }
     )
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDto> updateTask(@Valid @RequestBody TaskDto taskDto, @PathVariable("id") Integer id) {
-        return ResponseEntity.ok(taskService.updateTask(taskDto, id));
+    public ResponseEntity<TaskDto> updateTask(@Valid @RequestBody TaskDto taskDto, @PathVariable("id") Integer id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(ResponseEntity.ok(), taskService.updateTask(taskDto, id, expectedVersion(ifMatch)));
     }
 
     @Operation(
-            description = "Update only status by Id",
+            description = "Update only status by Id. With If-Match (the ETag of a previous response) the update is "
+                    + "applied only if the Task has not changed since",
             summary = "Update only status by Id.",
             responses = {
                     @ApiResponse(
@@ -116,16 +375,22 @@ public class TaskController {
                     @ApiResponse(
                             description = "Bad request",
                             responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Task changed since the If-Match version",
+                            responseCode = "412"
                     )
             }
     )
     @PatchMapping("/{id}/status")
-    public ResponseEntity<TaskDto> updateStatus(@PathVariable("id") Integer id, @Valid @RequestBody TaskDto taskDto) {
-        return ResponseEntity.ok(taskService.updateStatus(id, taskDto));
+    public ResponseEntity<TaskDto> updateStatus(@PathVariable("id") Integer id, @Valid @RequestBody TaskDto taskDto,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(ResponseEntity.ok(), taskService.updateStatus(id, taskDto, expectedVersion(ifMatch)));
     }
 
     @Operation(
-            description = "Update all Priority",
+            description = "Move every task from one priority to another in id-range chunks and return a summary. "
+                    + "Set includeTasks to also get the first page of tasks with the new priority.",
             summary = "Update all Priority",
             responses = {
                     @ApiResponse(
@@ -139,8 +404,14 @@ public class TaskController {
             }
     )
     @PutMapping("/priority")
-    public ResponseEntity<List<TaskDto>> updatePriorityForAll(@RequestBody PriorityUpdateRequest updateRequest) {
-        return ResponseEntity.ok(taskService.updatePriorityForAll(updateRequest.oldPriority(), updateRequest.newPriority()));
+    public ResponseEntity<PriorityUpdateSummary> updatePriorityForAll(@Valid @RequestBody PriorityUpdateRequest updateRequest,
+                                                                             @RequestParam(value = "includeTasks", defaultValue = "false") boolean includeTasks,
+                                                                             @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        var summary = taskService.updatePriorityForAll(updateRequest.oldPriority(), updateRequest.newPriority());
+        if (includeTasks) {
+            summary = summary.withTasks(taskService.findByPriority(updateRequest.newPriority(), TaskSort.ID, null, limit));
+        }
+        return ResponseEntity.ok(summary);
     }
 
     @Operation(
@@ -0,0 +1,58 @@
+package ch.sintere.task.controller;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.exception.TaskVersionMismatchException;
+import org.springframework.http.ResponseEntity;
+
+import static java.lang.String.format;
+
+/**
+ * A task's ETag is its version, quoted: {@code "3"}. Writes sending it back in {@code If-Match} are applied
+ * only if the task is still at that version, reads sending it in {@code If-None-Match} get a 304 while it is.
+ * <p>
+ * A list's ETag is weak, {@code W/"<change version>"}: it changes whenever a task in the list may have changed,
+ * but several versions of the list may share it.
+ */
+final class TaskETags {
+
+    private static final String ANY = "*";
+
+    private TaskETags() {
+    }
+
+    static ResponseEntity<TaskDto> withETag(ResponseEntity.BodyBuilder response, TaskDto taskDto) {
+        if (taskDto.version() != null) {
+            response.eTag(of(taskDto.version()));
+        }
+        return response.body(taskDto);
+    }
+
+    static String of(Long version) {
+        return format("\"%s\"", version);
+    }
+
+    static String ofList(String changeVersion) {
+        return format("W/\"%s\"", changeVersion);
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or {@code null} when there is no header or it is {@code *}.
+     *
+     * @throws TaskVersionMismatchException if the header cannot match any version: a weak, malformed or
+     *                                      non-numeric tag, or a list of several.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals(ANY)) {
+            return null;
+        }
+        var tag = ifMatch.strip();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through: not one of our ETags
+            }
+        }
+        throw new TaskVersionMismatchException(format("If-Match %s matches no version of the task", ifMatch));
+    }
+}
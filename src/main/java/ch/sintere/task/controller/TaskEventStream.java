@@ -0,0 +1,116 @@
+package ch.sintere.task.controller;
+
+import ch.sintere.task.service.TaskChangeFeed;
+import ch.sintere.task.service.TaskChangeFeed.Filter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the {@link TaskChangeFeed} to SSE clients, each from a virtual thread of its own reading the feed at its
+ * own pace, so a slow client only ever holds up itself.
+ * <p>
+ * A client that falls so far behind that the events it has not received yet were overwritten is dropped. When it
+ * reconnects, or resumes with a {@code Last-Event-ID} the feed no longer holds (or from before a restart), it gets
+ * a {@code reset} event first: it missed changes and must reload its lists. An id whose following events were
+ * overwritten counts as one the feed no longer holds, so a dropped client is not dropped again on every reconnect.
+ * Idle streams get a heartbeat comment with the id of the stream's position.
+ * <p>
+ * Exposes {@code task.stream.subscribers} and {@code task.stream.dropped}.
+ */
+@Component
+@Slf4j
+class TaskEventStream {
+
+    static final String RESET = "reset";
+    private static final int READ_BATCH_SIZE = 100;
+
+    private final TaskChangeFeed taskChangeFeed;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+
+    TaskEventStream(TaskChangeFeed taskChangeFeed,
+                    MeterRegistry meterRegistry,
+                    @Value("${task.stream.timeout:30m}") Duration timeout,
+                    @Value("${task.stream.heartbeat:15s}") Duration heartbeat) {
+        this.taskChangeFeed = taskChangeFeed;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        Gauge.builder("task.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open SSE task streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("task.stream.dropped")
+                .description("SSE task streams closed because the client fell behind the change feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the events matching {@code filter}, following {@code lastEventId} or, without one,
+     * starting with the next event.
+     */
+    SseEmitter subscribe(Filter filter, String lastEventId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var resumeAfter = lastEventId == null ? null : taskChangeFeed.sequenceOf(lastEventId);
+        var after = resumeAfter == null || resumeAfter.isEmpty() ? taskChangeFeed.lastSequence() : resumeAfter.getAsLong();
+        var reset = resumeAfter != null && resumeAfter.isEmpty();
+        var sender = Thread.ofVirtual()
+                .name("task-stream-" + after)
+                .unstarted(() -> stream(emitter, filter, after, reset));
+        // Wakes the sender up from its wait for events once the client is gone or the stream timed out
+        emitter.onCompletion(sender::interrupt);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> sender.interrupt());
+        sender.start();
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, Filter filter, long after, boolean reset) {
+        subscribers.incrementAndGet();
+        try {
+            if (reset) {
+                emitter.send(SseEmitter.event().id(taskChangeFeed.eventId(after)).name(RESET).data(""));
+            }
+            while (true) {
+                var batch = taskChangeFeed.read(after, READ_BATCH_SIZE, heartbeat);
+                if (batch.missed()) {
+                    dropped.increment();
+                    log.debug("SSE task stream fell behind the change feed, closing it");
+                    emitter.complete();
+                    return;
+                }
+                if (batch.entries().isEmpty()) {
+                    // Carries the position too, so a filtered client's Last-Event-ID follows events it did not get
+                    emitter.send(SseEmitter.event().id(taskChangeFeed.eventId(after)).comment("heartbeat"));
+                    continue;
+                }
+                for (var entry : batch.entries()) {
+                    if (filter.matches(entry)) {
+                        emitter.send(SseEmitter.event()
+                                .id(taskChangeFeed.eventId(entry.sequence()))
+                                .name(entry.type().name())
+                                .data(entry.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+                after = batch.entries().getLast().sequence();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, or the stream completed (timeout) while an event was sent
+            log.debug("SSE task stream closed: {}", e.getMessage());
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+}
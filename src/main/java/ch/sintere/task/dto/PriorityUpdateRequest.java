@@ -1,8 +1,18 @@
 package ch.sintere.task.dto;
 
 import ch.sintere.task.entities.Priority;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
 
 public record PriorityUpdateRequest(
-        Priority oldPriority, Priority newPriority
+        @NotNull(message = "Priority update shall have an old priority") Priority oldPriority,
+        @NotNull(message = "Priority update shall have a new priority") Priority newPriority
 ) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Priority update shall change the priority")
+    public boolean isChange() {
+        return oldPriority == null || oldPriority != newPriority;
+    }
 }
@@ -0,0 +1,22 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.entities.Priority;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a bulk priority change. {@code tasks} is only present when the caller asked for it and then holds
+ * the first page of tasks with the new priority; further pages come from {@code GET /priority}.
+ */
+public record PriorityUpdateSummary(
+        Priority oldPriority,
+        Priority newPriority,
+        long updated,
+        int chunks,
+        long elapsedMillis,
+        @JsonInclude(JsonInclude.Include.NON_NULL) TaskPage tasks
+) {
+
+    public PriorityUpdateSummary withTasks(TaskPage tasks) {
+        return new PriorityUpdateSummary(oldPriority, newPriority, updated, chunks, elapsedMillis, tasks);
+    }
+}
@@ -0,0 +1,22 @@
+package ch.sintere.task.dto;
+
+public record TaskBatchResult(
+        int index,
+        String title,
+        Outcome outcome,
+        TaskDto task
+) {
+
+    public enum Outcome {
+        CREATED,
+        CONFLICT
+    }
+
+    public static TaskBatchResult created(int index, TaskDto task) {
+        return new TaskBatchResult(index, task.title(), Outcome.CREATED, task);
+    }
+
+    public static TaskBatchResult conflict(int index, String title) {
+        return new TaskBatchResult(index, title, Outcome.CONFLICT, null);
+    }
+}
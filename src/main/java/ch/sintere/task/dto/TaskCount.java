@@ -0,0 +1,10 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+
+/**
+ * Number of tasks with one (status, priority) pair, and how many of them are overdue.
+ */
+public record TaskCount(Status status, Priority priority, Long count, Long overdue) {
+}
@@ -0,0 +1,45 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Keyset position of the last task returned by a paginated query.
+ * <p>
+ * For {@link TaskSort#DUE_DATE} a {@code null} due date means the scan has moved past all dated tasks
+ * and continues with the undated ones ordered by id.
+ * Clients only ever see the encoded form and must treat it as opaque.
+ */
+public record TaskCursor(TaskSort sort, LocalDate dueDate, Integer id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = sort.name() + SEPARATOR + (dueDate == null ? "" : dueDate) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort expectedSort) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new InvalidCursorException(format("Malformed cursor:: %s", cursor));
+            }
+            var sort = TaskSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidCursorException(format("Cursor was issued for sort %s, not %s", sort, expectedSort));
+            }
+            var dueDate = parts[1].isEmpty() ? null : LocalDate.parse(parts[1]);
+            return new TaskCursor(sort, dueDate, Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(format("Malformed cursor:: %s", cursor));
+        }
+    }
+}
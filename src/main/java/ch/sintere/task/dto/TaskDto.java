@@ -2,20 +2,25 @@ package ch.sintere.task.dto;
 
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public record TaskDto(
-        @NotBlank(message = "Task shall have a title") String title,
+        @NotBlank(message = "Task shall have a title")
+        @Size(max = 255, message = "Task title shall have at most 255 characters") String title,
         @NotNull(message = "Task shall have a status") Status status,
         @NotNull(message = "Task shall have a priority") Priority priority,
         LocalDateTime createdAt,
         LocalDateTime updatedAt,
         @FutureOrPresent LocalDate dueDate,
-        String createdBy
+        String createdBy,
+        // Sent as the ETag too; clients echo it in If-Match rather than in the body
+        @JsonProperty(access = JsonProperty.Access.READ_ONLY) Long version
 ) {
 }
@@ -0,0 +1,6 @@
+package ch.sintere.task.dto;
+
+import java.time.LocalDate;
+
+public record TaskDueDate(Integer id, LocalDate dueDate) {
+}
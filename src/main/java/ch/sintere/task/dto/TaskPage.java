@@ -0,0 +1,9 @@
+package ch.sintere.task.dto;
+
+import java.util.List;
+
+public record TaskPage(
+        List<TaskDto> content,
+        String nextCursor
+) {
+}
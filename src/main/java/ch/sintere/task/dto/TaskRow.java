@@ -0,0 +1,27 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a task row that keeps the id, which keyset pagination needs for its cursor.
+ */
+public record TaskRow(
+        Integer id,
+        String title,
+        Status status,
+        Priority priority,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDate dueDate,
+        String createdBy,
+        Long version
+) {
+
+    public TaskDto toDto() {
+        return new TaskDto(title, status, priority, createdAt, updatedAt, dueDate, createdBy, version);
+    }
+}
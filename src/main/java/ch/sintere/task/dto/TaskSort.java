@@ -0,0 +1,6 @@
+package ch.sintere.task.dto;
+
+public enum TaskSort {
+    ID,
+    DUE_DATE
+}
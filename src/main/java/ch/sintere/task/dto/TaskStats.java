@@ -0,0 +1,21 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Task counts per status and priority. {@code overdue} only lists tasks that are not DONE and are past
+ * their due date. {@code reconciledAt} is when the counts were last checked against the database,
+ * {@code null} until the first check has run.
+ */
+public record TaskStats(
+        long total,
+        long overdueTotal,
+        Map<Status, Map<Priority, Long>> counts,
+        Map<Status, Map<Priority, Long>> overdue,
+        LocalDateTime reconciledAt
+) {
+}
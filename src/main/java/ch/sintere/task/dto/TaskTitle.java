@@ -0,0 +1,4 @@
+package ch.sintere.task.dto;
+
+public record TaskTitle(Integer id, String title) {
+}
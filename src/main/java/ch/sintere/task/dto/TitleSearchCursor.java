@@ -0,0 +1,41 @@
+package ch.sintere.task.dto;
+
+import ch.sintere.task.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Position of the last task returned by a title search. Results list the titles starting with the query
+ * ({@link Phase#PREFIX}), then those only containing it ({@link Phase#SUBSTRING}), each ordered by
+ * (lower-cased title, id). Clients only ever see the encoded form and must treat it as opaque.
+ */
+public record TitleSearchCursor(Phase phase, String title, Integer id) {
+
+    public enum Phase {PREFIX, SUBSTRING}
+
+    private static final String SEPARATOR = "|";
+
+    public static final TitleSearchCursor START = new TitleSearchCursor(Phase.PREFIX, "", 0);
+
+    public String encode() {
+        // The title goes last: it may itself contain the separator
+        var raw = phase.name() + SEPARATOR + id + SEPARATOR + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TitleSearchCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new InvalidCursorException(format("Malformed cursor:: %s", cursor));
+            }
+            return new TitleSearchCursor(Phase.valueOf(parts[0]), parts[2], Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(format("Malformed cursor:: %s", cursor));
+        }
+    }
+}
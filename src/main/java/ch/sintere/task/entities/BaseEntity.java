@@ -3,6 +3,7 @@ package ch.sintere.task.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -34,4 +35,9 @@ public abstract class BaseEntity {
     @Column(name = "created_by", nullable = false, updatable = false,
             columnDefinition = "VARCHAR(255) DEFAULT 'SYSTEM'")
     private String createdBy;
+
+    // Bumped by every update; the conditional updates of TaskRepository match on it
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,49 @@
+package ch.sintere.task.entities;
+
+import ch.sintere.task.event.TaskChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link TaskChangedEvent} waiting in the outbox, written in the transaction of the task write it records and
+ * deleted once relayed to Kafka.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@Table(name = "task_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // Pooled like the tasks ids, so the events of a batch insert are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_seq")
+    @SequenceGenerator(name = "task_outbox_seq", sequenceName = "task_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Integer taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TaskChangedEvent.Type type;
+
+    // The event serialized as JSON, published as is
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Until then a relay is publishing the event and the others leave it alone; null when not claimed
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,23 @@
+package ch.sintere.task.event;
+
+import ch.sintere.task.dto.TaskDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed write to a task, as published on the {@code task.outbox.topic} Kafka topic keyed by task id.
+ * {@code task} is the task after the write, or as it was when DELETED.
+ * <p>
+ * Delivery is at least once, and events of one task written through different instances may arrive out of order:
+ * consumers keep, per task, the event with the highest {@code task.version}, a DELETED one winning a tie.
+ */
+public record TaskChangedEvent(Type type, Integer taskId, TaskDto task, LocalDateTime occurredAt) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        PRIORITY_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,11 @@
+package ch.sintere.task.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published when the day after {@code dueDate} starts for tasks that are still not DONE. Large days are split
+ * into several events of at most {@code task.overdue.event-batch-size} ids each.
+ */
+public record TasksBecameOverdueEvent(LocalDate dueDate, List<Integer> taskIds) {
+}
@@ -0,0 +1,7 @@
+package ch.sintere.task.exception;
+
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
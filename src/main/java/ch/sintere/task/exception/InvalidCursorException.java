@@ -0,0 +1,7 @@
+package ch.sintere.task.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
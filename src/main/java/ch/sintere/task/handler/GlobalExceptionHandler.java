@@ -1,17 +1,32 @@
 package ch.sintere.task.handler;
 
+import ch.sintere.task.exception.DatabaseBusyException;
+import ch.sintere.task.exception.IdempotencyKeyReusedException;
+import ch.sintere.task.exception.InvalidCursorException;
 import ch.sintere.task.exception.TaskAlreadyExistException;
 import ch.sintere.task.exception.TaskDueDateInvalidException;
 import ch.sintere.task.exception.TaskNotFoundException;
+import ch.sintere.task.exception.TaskVersionMismatchException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.*;
@@ -23,6 +38,23 @@ public class GlobalExceptionHandler {
     private static final String TASK_NOT_FOUND  = "Task not found in the database";
     private static final String TASK_STATUS_CAN_NOT_BE_UPDATED  = "Task status can not be updated";
     private static final String TASK_ALREADY_EXISTS = "Task already exists in the database";
+    private static final String INVALID_CURSOR = "Invalid pagination cursor";
+    private static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key already used for another request";
+    private static final String DATA_CONFLICT = "Request conflicts with the current state of the database";
+    // The driver's message names tables, columns and values, so it only goes to the log
+    private static final String TITLE_CONFLICT = "A task with this title already exists";
+    private static final String CONSTRAINT_VIOLATED = "Request violates a constraint of the database";
+    private static final String INVALID_VALUE = "Request has a value the database cannot store";
+    private static final String INVALID_REQUEST = "Invalid request";
+    // The unique constraint on tasks.title, as named by V1 (and by the entity for generated schemas)
+    private static final String TITLE_CONSTRAINT = "tasks_title_key";
+    private static final String UNIQUE_VIOLATION = "23505";
+    // SQLState class 22: the value does not fit its column (too long, out of range...)
+    private static final String DATA_EXCEPTION_CLASS = "22";
+    private static final String TASK_VERSION_MISMATCH = "Task was modified since the version given in If-Match";
+    private static final String CONCURRENT_MODIFICATION = "Task is being modified concurrently";
+    private static final String DATABASE_BUSY = "Service temporarily overloaded";
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     @ExceptionHandler(TaskNotFoundException.class)
     public ResponseEntity<ProblemDetail> handleTaskNotFoundException(TaskNotFoundException ex) {
@@ -42,6 +74,64 @@ public class GlobalExceptionHandler {
         return createResponseEntityWithProblemDetail( ex.getMessage(), CONFLICT, TASK_ALREADY_EXISTS);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        log.warn("Constraint violated: {}", ex.getMostSpecificCause().getMessage());
+        var sqlState = sqlState(ex);
+        if (UNIQUE_VIOLATION.equals(sqlState) && violatesTitleConstraint(ex)) {
+            return createResponseEntityWithProblemDetail(TITLE_CONFLICT, CONFLICT, DATA_CONFLICT);
+        }
+        if (sqlState != null && sqlState.startsWith(DATA_EXCEPTION_CLASS)) {
+            return createResponseEntityWithProblemDetail(INVALID_VALUE, BAD_REQUEST, INVALID_REQUEST);
+        }
+        return createResponseEntityWithProblemDetail(CONSTRAINT_VIOLATED, CONFLICT, DATA_CONFLICT);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ProblemDetail> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail(errorMessages(ex.getAllErrors()), BAD_REQUEST, INVALID_REQUEST);
+    }
+
+    // Constraints on the elements of a @RequestBody List are checked by method validation
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ProblemDetail> handleHandlerMethodValidationException(HandlerMethodValidationException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail(errorMessages(ex.getAllErrors()), BAD_REQUEST, INVALID_REQUEST);
+    }
+
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleTaskVersionMismatchException(TaskVersionMismatchException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail( ex.getMessage(), PRECONDITION_FAILED, TASK_VERSION_MISMATCH);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail( ex.getMessage(), CONFLICT, CONCURRENT_MODIFICATION);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        log.warn("Idempotency-Key reused: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail( ex.getMessage(), UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<ProblemDetail> handleDatabaseBusyException(DatabaseBusyException ex) {
+        var problemDetail = createProblemDetail(SERVICE_UNAVAILABLE, ex.getMessage(), DATABASE_BUSY);
+        return ResponseEntity.status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(problemDetail);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidCursorException(InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        return createResponseEntityWithProblemDetail( ex.getMessage(), BAD_REQUEST, INVALID_CURSOR);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ProblemDetail> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
         var name = ex.getName();
@@ -59,6 +149,30 @@ public class GlobalExceptionHandler {
         );
     }
 
+    private static String sqlState(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    private static boolean violatesTitleConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(TITLE_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    private static String errorMessages(List<? extends MessageSourceResolvable> errors) {
+        return errors.stream()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.joining("; "));
+    }
+
     private ResponseEntity<ProblemDetail> createResponseEntityWithProblemDetail(String message, HttpStatus status, String description) {
         ProblemDetail problemDetail = createProblemDetail(status, message, description);
         return new ResponseEntity<>(problemDetail, status);
@@ -0,0 +1,43 @@
+package ch.sintere.task.repository;
+
+import ch.sintere.task.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.cfg.AvailableSettings.JAKARTA_LOCK_TIMEOUT;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events that no relay claimed, or whose claim expired, skipping those another relay has
+     * locked (FOR UPDATE SKIP LOCKED), so that concurrent relays take disjoint batches. Must be called inside a
+     * transaction, which claims them before it commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("""
+            SELECT ev FROM OutboxEvent ev
+            WHERE ev.claimedUntil IS NULL OR ev.claimedUntil < :now
+            ORDER BY ev.id
+            """)
+    List<OutboxEvent> findOldestUnclaimed(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Claims the events until {@code claimedUntil}, or releases them when it is {@code null}.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent ev SET ev.claimedUntil = :claimedUntil WHERE ev.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+}
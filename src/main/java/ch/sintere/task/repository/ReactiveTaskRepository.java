@@ -0,0 +1,80 @@
+package ch.sintere.task.repository;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.converter.PriorityConverter;
+import ch.sintere.task.entities.converter.StatusConverter;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking read access to the {@code tasks} table over R2DBC. Writes stay on {@link TaskRepository}.
+ * <p>
+ * Rows are fetched {@value #FETCH_SIZE} at a time and only as fast as the subscriber requests them,
+ * so a slow consumer holds back the database cursor instead of buffering the table in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_TASK = """
+            SELECT title, status, priority, created_at, updated_at, due_date, created_by, version
+            FROM tasks
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final StatusConverter statusConverter = new StatusConverter();
+    private final PriorityConverter priorityConverter = new PriorityConverter();
+
+    public Mono<TaskDto> findDtoById(Integer id) {
+        return databaseClient.sql(SELECT_TASK + "WHERE id = :id")
+                .bind("id", id)
+                .map(this::toTaskDto)
+                .one();
+    }
+
+    public Flux<TaskDto> findDtosByStatus(Status status) {
+        return databaseClient.sql(SELECT_TASK + "WHERE status = :status ORDER BY id")
+                .bind("status", statusConverter.convertToDatabaseColumn(status))
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(this::toTaskDto)
+                .all();
+    }
+
+    public Flux<TaskDto> findDtosByPriority(Priority priority) {
+        return databaseClient.sql(SELECT_TASK + "WHERE priority = :priority ORDER BY id")
+                .bind("priority", priorityConverter.convertToDatabaseColumn(priority))
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(this::toTaskDto)
+                .all();
+    }
+
+    public Flux<TaskDto> findAllDtos() {
+        return databaseClient.sql(SELECT_TASK + "ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(this::toTaskDto)
+                .all();
+    }
+
+    private TaskDto toTaskDto(Readable row) {
+        return new TaskDto(
+                row.get("title", String.class),
+                statusConverter.convertToEntityAttribute(row.get("status", String.class)),
+                priorityConverter.convertToEntityAttribute(row.get("priority", String.class)),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("due_date", LocalDate.class),
+                row.get("created_by", String.class),
+                row.get("version", Long.class));
+    }
+}
@@ -1,31 +1,241 @@
 package ch.sintere.task.repository;
 
+import ch.sintere.task.dto.TaskCount;
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskDueDate;
+import ch.sintere.task.dto.TaskRow;
+import ch.sintere.task.dto.TaskTitle;
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
 import ch.sintere.task.entities.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
-    List<Task> findByStatus(Status status);
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskRepositoryCustom {
 
-    List<Task> findByPriority(Priority priority);
+    int STREAM_FETCH_SIZE = 500;
+
+    // Read queries select straight into records: no managed entity, no dirty-checking snapshot, no mapper pass
+
+    String NEW_TASK_DTO = """
+            new ch.sintere.task.dto.TaskDto(
+                tk.title, tk.status, tk.priority, tk.createdAt, tk.updatedAt, tk.dueDate, tk.createdBy, tk.version)
+            """;
+
+    String NEW_TASK_ROW = """
+            new ch.sintere.task.dto.TaskRow(
+                tk.id, tk.title, tk.status, tk.priority, tk.createdAt, tk.updatedAt, tk.dueDate, tk.createdBy, tk.version)
+            """;
 
     Optional<Task> findByTitle(String title);
 
+    @Query("SELECT " + NEW_TASK_DTO + " FROM Task tk WHERE tk.id = :id")
+    Optional<TaskDto> findDtoById(@Param("id") Integer id);
+
+    @Query("SELECT " + NEW_TASK_ROW + " FROM Task tk WHERE tk.id = :id")
+    Optional<TaskRow> findRowById(@Param("id") Integer id);
+
+    @Query("SELECT " + NEW_TASK_ROW + " FROM Task tk WHERE tk.id IN :ids")
+    List<TaskRow> findRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT tk.title FROM Task tk WHERE tk.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    // Keyset pagination by status, ordered by id or by (dueDate, id) with undated tasks last.
+    // The row-value comparison lets the database seek straight into the (status|priority, due_date, id) index.
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.status = :status AND tk.id > :id
+            ORDER BY tk.id
+            """)
+    List<TaskRow> findRowsByStatusAfterId(@Param("status") Status status, @Param("id") Integer id, Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.status = :status AND tk.dueDate IS NOT NULL
+            ORDER BY tk.dueDate, tk.id
+            """)
+    List<TaskRow> findRowsByStatusFirstDated(@Param("status") Status status, Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.status = :status AND (tk.dueDate, tk.id) > (:dueDate, :id)
+            ORDER BY tk.dueDate, tk.id
+            """)
+    List<TaskRow> findRowsByStatusAfterDueDate(@Param("status") Status status,
+                                               @Param("dueDate") LocalDate dueDate,
+                                               @Param("id") Integer id,
+                                               Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.status = :status AND tk.dueDate IS NULL AND tk.id > :id
+            ORDER BY tk.id
+            """)
+    List<TaskRow> findRowsByStatusUndatedAfterId(@Param("status") Status status, @Param("id") Integer id, Limit limit);
+
+    // Keyset pagination by priority, ordered by id or by (dueDate, id) with undated tasks last
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.priority = :priority AND tk.id > :id
+            ORDER BY tk.id
+            """)
+    List<TaskRow> findRowsByPriorityAfterId(@Param("priority") Priority priority, @Param("id") Integer id, Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.priority = :priority AND tk.dueDate IS NOT NULL
+            ORDER BY tk.dueDate, tk.id
+            """)
+    List<TaskRow> findRowsByPriorityFirstDated(@Param("priority") Priority priority, Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.priority = :priority AND (tk.dueDate, tk.id) > (:dueDate, :id)
+            ORDER BY tk.dueDate, tk.id
+            """)
+    List<TaskRow> findRowsByPriorityAfterDueDate(@Param("priority") Priority priority,
+                                                 @Param("dueDate") LocalDate dueDate,
+                                                 @Param("id") Integer id,
+                                                 Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.priority = :priority AND tk.dueDate IS NULL AND tk.id > :id
+            ORDER BY tk.id
+            """)
+    List<TaskRow> findRowsByPriorityUndatedAfterId(@Param("priority") Priority priority, @Param("id") Integer id, Limit limit);
+
+    // Title search, keyset-paginated by (lower(title), id); patterns are lower-cased with LIKE wildcards escaped
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE lower(tk.title) LIKE :prefix ESCAPE '\\'
+              AND (lower(tk.title), tk.id) > (:title, :id)
+            ORDER BY lower(tk.title), tk.id
+            """)
+    List<TaskRow> findRowsByTitleStartingAfter(@Param("prefix") String prefixPattern,
+                                               @Param("title") String title,
+                                               @Param("id") Integer id,
+                                               Limit limit);
+
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE lower(tk.title) LIKE :substring ESCAPE '\\'
+              AND lower(tk.title) NOT LIKE :prefix ESCAPE '\\'
+              AND (lower(tk.title), tk.id) > (:title, :id)
+            ORDER BY lower(tk.title), tk.id
+            """)
+    List<TaskRow> findRowsByTitleContainingAfter(@Param("substring") String substringPattern,
+                                                 @Param("prefix") String prefixPattern,
+                                                 @Param("title") String title,
+                                                 @Param("id") Integer id,
+                                                 Limit limit);
+
+    /**
+     * Streams the title of every task. Must be consumed inside a (read-only) transaction and closed afterward.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("SELECT new ch.sintere.task.dto.TaskTitle(tk.id, tk.title) FROM Task tk")
+    Stream<TaskTitle> streamTitles();
+
+    /**
+     * Streams every task ordered by id. Must be consumed inside a (read-only) transaction and closed afterward.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("SELECT " + NEW_TASK_DTO + " FROM Task tk ORDER BY tk.id")
+    Stream<TaskDto> streamAll();
+
+    @Query("""
+            SELECT new ch.sintere.task.dto.TaskCount(
+                tk.status, tk.priority, COUNT(tk),
+                SUM(CASE WHEN tk.status <> ch.sintere.task.entities.Status.DONE AND tk.dueDate < :today THEN 1 ELSE 0 END))
+            FROM Task tk
+            GROUP BY tk.status, tk.priority
+            """)
+    List<TaskCount> countByStatusAndPriority(@Param("today") LocalDate today);
+
+    /**
+     * Streams the due date of every task that can still become overdue. Must be consumed inside a (read-only)
+     * transaction and closed afterward.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            SELECT new ch.sintere.task.dto.TaskDueDate(tk.id, tk.dueDate)
+            FROM Task tk
+            WHERE tk.status <> ch.sintere.task.entities.Status.DONE AND tk.dueDate IS NOT NULL
+            """)
+    Stream<TaskDueDate> streamNotDoneDueDates();
+
+    @Query("SELECT COALESCE(MAX(tk.id), 0) FROM Task tk")
+    int findMaxId();
+
+    // Bulk priority change, one id range at a time: the rows are locked and read first, so the change events
+    // written in the same transaction describe exactly the rows the update then changes
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT " + NEW_TASK_ROW + """
+            FROM Task tk
+            WHERE tk.priority = :priority AND tk.id > :fromId AND tk.id <= :toId
+            ORDER BY tk.id
+            """)
+    List<TaskRow> lockRowsByPriorityInIdRange(@Param("priority") Priority priority,
+                                              @Param("fromId") int fromId,
+                                              @Param("toId") int toId);
+
+    @Modifying
+    @Query("""
+            UPDATE Task tk
+            SET tk.priority = :newPriority, tk.version = tk.version + 1
+            WHERE tk.id IN :ids
+            """)
+    int updatePriorityByIdIn(@Param("ids") Collection<Integer> ids, @Param("newPriority") Priority newPriority);
+
+    // Conditional updates: one statement, applied only if nobody changed the task since its version was read.
+    // They return 0 when the version moved on (or the task is gone), and take no lock before the write itself.
+
+    @Modifying
+    @Query("""
+            UPDATE Task tk
+            SET tk.title = :title, tk.status = :status, tk.priority = :priority, tk.dueDate = :dueDate,
+                tk.updatedAt = :updatedAt, tk.version = tk.version + 1
+            WHERE tk.id = :id AND tk.version = :version
+            """)
+    int updateIfVersionMatches(@Param("id") Integer id,
+                               @Param("version") Long version,
+                               @Param("title") String title,
+                               @Param("status") Status status,
+                               @Param("priority") Priority priority,
+                               @Param("dueDate") LocalDate dueDate,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
     @Modifying
     @Query("""
             UPDATE Task tk
-            SET tk.priority = :newPriority
-            WHERE tk.priority = :oldPriority
+            SET tk.status = :status, tk.updatedAt = :updatedAt, tk.version = tk.version + 1
+            WHERE tk.id = :id AND tk.version = :version
             """)
-    int updatePriorityForAll(@Param("oldPriority") Priority oldPriority,
-                              @Param("newPriority") Priority newPriority);
+    int updateStatusIfVersionMatches(@Param("id") Integer id,
+                                     @Param("version") Long version,
+                                     @Param("status") Status status,
+                                     @Param("updatedAt") LocalDateTime updatedAt);
 
 }
@@ -0,0 +1,26 @@
+package ch.sintere.task.repository;
+
+import ch.sintere.task.entities.Task;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Inserts the task in a single statement unless its title is already taken.
+     *
+     * @param task the new task, without id or audit fields.
+     * @return the inserted task, or empty when the unique title constraint rejected it.
+     */
+    Optional<Task> insertIfTitleAbsent(Task task);
+
+    /**
+     * Inserts the tasks in JDBC batches, skipping each one whose title is already taken, so that a title inserted
+     * concurrently only rejects its own row rather than the whole batch.
+     *
+     * @param tasks the new tasks, without id or audit fields.
+     * @return for each task, in order, the inserted task or empty when the unique title constraint rejected it.
+     */
+    List<Optional<Task>> insertAllIfTitleAbsent(List<Task> tasks);
+}
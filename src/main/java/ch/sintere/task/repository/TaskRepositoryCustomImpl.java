@@ -0,0 +1,153 @@
+package ch.sintere.task.repository;
+
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.entities.converter.PriorityConverter;
+import ch.sintere.task.entities.converter.StatusConverter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    // Rows per JDBC batch when hibernate.jdbc.batch_size is not set
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final String INSERT_ON_CONFLICT_DO_NOTHING = """
+            INSERT INTO tasks (id, title, status, priority, due_date, created_at, created_by, version)
+            VALUES (:id, :title, :status, :priority, :dueDate, :createdAt, :createdBy, 0)
+            ON CONFLICT (title) DO NOTHING
+            """;
+
+    // Portable fallback (H2): the unique constraint still guards against a concurrent insert
+    private static final String INSERT_WHERE_NOT_EXISTS = """
+            INSERT INTO tasks (id, title, status, priority, due_date, created_at, created_by, version)
+            SELECT :id, :title, :status, :priority, :dueDate, :createdAt, :createdBy, 0
+            WHERE NOT EXISTS (SELECT 1 FROM tasks WHERE title = :title)
+            """;
+
+    private static final String BATCH_INSERT_ON_CONFLICT_DO_NOTHING = """
+            INSERT INTO tasks (id, title, status, priority, due_date, created_at, created_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (title) DO NOTHING
+            """;
+
+    private static final String BATCH_INSERT_WHERE_NOT_EXISTS = """
+            INSERT INTO tasks (id, title, status, priority, due_date, created_at, created_by, version)
+            SELECT ?, ?, ?, ?, ?, ?, ?, 0
+            WHERE NOT EXISTS (SELECT 1 FROM tasks WHERE title = ?)
+            """;
+
+    private final EntityManager entityManager;
+    private final AuditorAware<String> auditorProvider;
+    private final StatusConverter statusConverter = new StatusConverter();
+    private final PriorityConverter priorityConverter = new PriorityConverter();
+
+    @Override
+    @Transactional
+    public Optional<Task> insertIfTitleAbsent(Task task) {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        var id = nextId(session, task);
+        var createdAt = LocalDateTime.now();
+        var createdBy = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+
+        var sql = isPostgres(session) ? INSERT_ON_CONFLICT_DO_NOTHING : INSERT_WHERE_NOT_EXISTS;
+        int inserted = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .setParameter("id", id)
+                .setParameter("title", task.getTitle())
+                .setParameter("status", statusConverter.convertToDatabaseColumn(task.getStatus()))
+                .setParameter("priority", priorityConverter.convertToDatabaseColumn(task.getPriority()))
+                .setParameter("dueDate", task.getDueDate(), LocalDate.class)
+                .setParameter("createdAt", createdAt, LocalDateTime.class)
+                .setParameter("createdBy", createdBy)
+                .executeUpdate();
+        if (inserted == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(inserted(task, id, createdAt, createdBy));
+    }
+
+    @Override
+    @Transactional
+    public List<Optional<Task>> insertAllIfTitleAbsent(List<Task> tasks) {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        var ids = new ArrayList<Integer>(tasks.size());
+        for (var task : tasks) {
+            ids.add(nextId(session, task));
+        }
+        var createdAt = LocalDateTime.now();
+        var createdBy = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+        var postgres = isPostgres(session);
+        var configuredBatchSize = session.getFactory().getSessionFactoryOptions().getJdbcBatchSize();
+        var batchSize = configuredBatchSize > 0 ? configuredBatchSize : DEFAULT_BATCH_SIZE;
+
+        var results = new ArrayList<Optional<Task>>(tasks.size());
+        session.doWork(connection -> {
+            try (var statement = connection.prepareStatement(
+                    postgres ? BATCH_INSERT_ON_CONFLICT_DO_NOTHING : BATCH_INSERT_WHERE_NOT_EXISTS)) {
+                for (int from = 0; from < tasks.size(); from += batchSize) {
+                    var to = Math.min(from + batchSize, tasks.size());
+                    for (int i = from; i < to; i++) {
+                        var task = tasks.get(i);
+                        statement.setInt(1, ids.get(i));
+                        statement.setString(2, task.getTitle());
+                        statement.setString(3, statusConverter.convertToDatabaseColumn(task.getStatus()));
+                        statement.setString(4, priorityConverter.convertToDatabaseColumn(task.getPriority()));
+                        statement.setObject(5, task.getDueDate(), Types.DATE);
+                        statement.setObject(6, createdAt, Types.TIMESTAMP);
+                        statement.setString(7, createdBy);
+                        if (!postgres) {
+                            statement.setString(8, task.getTitle());
+                        }
+                        statement.addBatch();
+                    }
+                    var counts = statement.executeBatch();
+                    for (int i = from; i < to; i++) {
+                        var count = counts[i - from];
+                        if (count == Statement.SUCCESS_NO_INFO) {
+                            // e.g. pgjdbc's reWriteBatchedInserts: conflicts could no longer be told apart
+                            throw new IllegalStateException("The JDBC driver does not report per-row insert counts");
+                        }
+                        results.add(count == 0 ? Optional.empty()
+                                : Optional.of(inserted(tasks.get(i), ids.get(i), createdAt, createdBy)));
+                    }
+                }
+            }
+        });
+        return results;
+    }
+
+    // Draws the id from the same pooled generator Hibernate uses, so every insert path shares one id range
+    private static Integer nextId(SharedSessionContractImplementor session, Task task) {
+        var generator = (BeforeExecutionGenerator) session.getEntityPersister(Task.class.getName(), task).getGenerator();
+        return (Integer) generator.generate(session, task, null, EventType.INSERT);
+    }
+
+    private static boolean isPostgres(SharedSessionContractImplementor session) {
+        return session.getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private static Task inserted(Task task, Integer id, LocalDateTime createdAt, String createdBy) {
+        task.setId(id);
+        task.setCreatedAt(createdAt);
+        task.setCreatedBy(createdBy);
+        task.setVersion(0L);
+        return task;
+    }
+}
@@ -0,0 +1,98 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Limits the number of concurrent {@link TaskService} calls to the size of the connection pool minus
+ * {@code reserved-connections}.
+ * <p>
+ * With virtual threads the servlet container no longer caps concurrency, so without this every request in a
+ * burst would block inside Hikari until the pool's connection timeout. Instead a call waits at most
+ * {@code queue-timeout} for a permit and otherwise fails fast with {@link DatabaseBusyException} (503).
+ * <p>
+ * The advice runs inside the cache interceptor, so cache hits never take a permit, and outside the
+ * transaction interceptor, so the permit is held before a connection is borrowed and until it is returned.
+ * That relies on {@code spring.jpa.open-in-view} being off: otherwise the request would keep the connection
+ * after the permit is released.
+ * <p>
+ * Background jobs (outbox relay, statistics reconcile, in-memory view rebuilds) borrow connections without a
+ * permit. Were the permits equal to the pool, a full bulkhead plus one such job would leave a permit holder
+ * waiting in Hikari for the connection timeout, so by default the reserve is kept out of the permits.
+ */
+@Aspect
+@Component
+@Order(DatabaseBulkhead.ORDER)
+@Slf4j
+public class DatabaseBulkhead {
+
+    /**
+     * Between the cache interceptor ({@code ORDER - 1}) and the transaction interceptor (lowest precedence).
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private static final String MAX_CONCURRENT = "${task.bulkhead.max-concurrent:"
+            + "#{${spring.datasource.hikari.maximum-pool-size:10} - ${task.bulkhead.reserved-connections:0}}}";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long queueTimeoutNanos;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(@Value(MAX_CONCURRENT) int maxConcurrent,
+                            @Value("${task.bulkhead.queue-timeout:250ms}") Duration queueTimeout,
+                            MeterRegistry meterRegistry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException(format(
+                    "task.bulkhead needs at least one permit, got %d; lower reserved-connections", maxConcurrent));
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.rejected = Counter.builder("task.bulkhead.rejected")
+                .description("TaskService calls rejected because the database bulkhead was full")
+                .register(meterRegistry);
+        Gauge.builder("task.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free database bulkhead permits")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public * ch.sintere.task.service.TaskService+.*(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        acquire(joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire(String operation) {
+        try {
+            if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        log.warn("Database bulkhead full, rejecting {}", operation);
+        throw new DatabaseBusyException(format("All %d database slots are busy, retry later", maxConcurrent));
+    }
+}
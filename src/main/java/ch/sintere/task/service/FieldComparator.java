@@ -0,0 +1,94 @@
+package ch.sintere.task.service;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares an entity with a record DTO field by field, skipping the fields that are allowed to change.
+ * <p>
+ * Compared are the fields declared by the entity class that the DTO also has as a record component.
+ * The getters and record accessors are resolved once and bound to {@link Function} lambdas through
+ * {@link LambdaMetafactory}, so a comparison does no reflection and allocates nothing.
+ */
+public final class FieldComparator<E, D extends Record> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String[] fieldNames;
+    private final Function<E, Object>[] entityGetters;
+    private final Function<D, Object>[] dtoGetters;
+
+    private FieldComparator(String[] fieldNames, Function<E, Object>[] entityGetters, Function<D, Object>[] dtoGetters) {
+        this.fieldNames = fieldNames;
+        this.entityGetters = entityGetters;
+        this.dtoGetters = dtoGetters;
+    }
+
+    /**
+     * @param mutableFields names of the fields that may differ between entity and DTO.
+     * @throws IllegalStateException if an entity field shared with the DTO has no public getter.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E, D extends Record> FieldComparator<E, D> of(Class<E> entityType, Class<D> dtoType, Set<String> mutableFields) {
+        var dtoAccessors = Arrays.stream(dtoType.getRecordComponents())
+                .collect(Collectors.toMap(RecordComponent::getName, RecordComponent::getAccessor));
+        var names = new ArrayList<String>();
+        var entityGetters = new ArrayList<Function<E, Object>>();
+        var dtoGetters = new ArrayList<Function<D, Object>>();
+        for (var field : entityType.getDeclaredFields()) {
+            var name = field.getName();
+            if (Modifier.isStatic(field.getModifiers()) || mutableFields.contains(name) || !dtoAccessors.containsKey(name)) {
+                continue;
+            }
+            try {
+                var getterPrefix = field.getType() == boolean.class ? "is" : "get";
+                var getter = entityType.getMethod(getterPrefix + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+                names.add(name);
+                entityGetters.add(toFunction(LOOKUP.unreflect(getter)));
+                dtoGetters.add(toFunction(LOOKUP.unreflect(dtoAccessors.get(name))));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No public getter for " + entityType.getSimpleName() + "." + name, e);
+            }
+        }
+        return new FieldComparator<>(names.toArray(String[]::new),
+                entityGetters.toArray(Function[]::new),
+                dtoGetters.toArray(Function[]::new));
+    }
+
+    /**
+     * @return the name of the first compared field whose values differ, or {@code null} if none does.
+     */
+    public String firstChangedField(E entity, D dto) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (!Objects.equals(entityGetters[i].apply(entity), dtoGetters[i].apply(dto))) {
+                return fieldNames[i];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, Object> toFunction(MethodHandle getter) {
+        try {
+            var callSite = LambdaMetafactory.metafactory(LOOKUP,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    getter,
+                    getter.type().wrap());
+            return (Function<T, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind getter " + getter, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Remembers the task created for an {@code Idempotency-Key}, so a client retry gets the original
+ * response back without touching the database.
+ */
+@Component
+public class IdempotencyStore {
+
+    // The request a key was first used with, and the task created for it once done
+    private record Creation(TaskDto request, CompletableFuture<TaskDto> created) {
+    }
+
+    private final Cache<String, Creation> creations;
+
+    public IdempotencyStore(@Value("${task.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${task.idempotency.max-size:100000}") long maxSize) {
+        this.creations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the task already created for this key, or runs {@code create} once and remembers its result.
+     * Concurrent retries with the same key wait for the first one instead of racing it. Nothing is remembered
+     * when {@code create} throws.
+     * <p>
+     * Only a placeholder is registered under the map's lock; {@code create} runs after it is released, so a slow
+     * insert holds up neither other keys nor, on a virtual thread, its carrier.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used before for a different request.
+     */
+    public TaskDto createOnce(String idempotencyKey, TaskDto request, Supplier<TaskDto> create) {
+        while (true) {
+            var creation = new Creation(request, new CompletableFuture<>());
+            var existing = creations.asMap().putIfAbsent(idempotencyKey, creation);
+            if (existing == null) {
+                return create(idempotencyKey, creation, create);
+            }
+            if (!existing.request().equals(request)) {
+                throw new IdempotencyKeyReusedException(
+                        format("Idempotency-Key %s was already used for another task", idempotencyKey));
+            }
+            try {
+                return existing.created().join();
+            } catch (CompletionException | CancellationException e) {
+                // The first attempt failed and was forgotten: this retry makes its own
+            }
+        }
+    }
+
+    private TaskDto create(String idempotencyKey, Creation creation, Supplier<TaskDto> create) {
+        try {
+            var created = create.get();
+            creation.created().complete(created);
+            return created;
+        } catch (RuntimeException | Error e) {
+            // Removed before the waiters wake up, so that they do not find the failed attempt again
+            creations.asMap().remove(idempotencyKey, creation);
+            creation.created().completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package ch.sintere.task.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,7 +17,13 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -27,18 +36,48 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
   private final JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
   private final String principalAttributeName;
   private final String resourceId;
+  private final Cache<String, ConvertedJwt> convertedTokens;
 
   public JwtAuthConverter(@Value("${jwt.auth.converter.principal-attribute}") String principalAttributeName,
-                          @Value("${jwt.auth.converter.resource-id}") String resourceId) {
+                          @Value("${jwt.auth.converter.resource-id}") String resourceId,
+                          @Value("${jwt.auth.converter.cache.max-size:10000}") long cacheMaxSize) {
     this.principalAttributeName = principalAttributeName;
     this.resourceId = resourceId;
+    this.convertedTokens = cacheMaxSize > 0
+            ? Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfter(untilTokenExpires()).build()
+            : null;
   }
 
+  /**
+   * Clients send the same access token for its whole lifetime, so the authorities and principal name are
+   * computed once per token and reused until the token's {@code exp}. Tokens are keyed by their {@code jti}, or
+   * by a SHA-256 of the token value without one, so that no credential is kept in the heap.
+   * Tokens without {@code exp} are converted on every call. A max size of 0 disables the cache.
+   */
   @Override
   public AbstractAuthenticationToken convert(@NonNull Jwt source) {
+    var converted = convertedTokens == null || source.getExpiresAt() == null
+            ? convertClaims(source)
+            : convertedTokens.get(cacheKey(source), key -> convertClaims(source));
+    return new JwtAuthenticationToken(source, converted.authorities(), converted.principalName());
+  }
+
+  private static String cacheKey(Jwt source) {
+    if (source.getId() != null) {
+      return "jti:" + source.getId();
+    }
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(source.getTokenValue().getBytes(StandardCharsets.US_ASCII));
+      return "sha256:" + HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private ConvertedJwt convertClaims(Jwt source) {
     var value = jwtGrantedAuthoritiesConverter.convert(source).stream();
-    Collection<GrantedAuthority> authorities = Stream.concat(value, extractResourceRoles(source).stream()).collect(Collectors.toSet());
-    return new JwtAuthenticationToken(source, authorities, getPrincipalClaimName(source));
+    Collection<GrantedAuthority> authorities = Stream.concat(value, extractResourceRoles(source).stream()).collect(Collectors.toUnmodifiableSet());
+    return new ConvertedJwt(authorities, getPrincipalClaimName(source), source.getExpiresAt());
   }
 
   private String getPrincipalClaimName(Jwt source) {
@@ -47,7 +86,7 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
       claimName = principalAttributeName;
     }
     String username = source.getClaim(claimName);
-    LOGGER.info("Jwt claim is: {}, username is: {}", claimName, username);
+    LOGGER.debug("Jwt claim is: {}, username is: {}", claimName, username);
     return username;
   }
 
@@ -68,7 +107,17 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
     resource = (Map<String, Object>) resourceAccess.get(resourceId);
     resourceRoles = (Collection<String>) resource.get("roles");
     var convertedRoles = resourceRoles.stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)).collect(Collectors.toSet());
-    LOGGER.info("Jwt Raw role(s) {} Jwt converted Role(s) {}", resourceRoles, convertedRoles);
+    LOGGER.debug("Jwt Raw role(s) {} Jwt converted Role(s) {}", resourceRoles, convertedRoles);
     return convertedRoles;
   }
+
+  private static Expiry<String, ConvertedJwt> untilTokenExpires() {
+    return Expiry.creating((key, converted) -> {
+      var remaining = Duration.between(Instant.now(), converted.expiresAt());
+      return remaining.isNegative() ? Duration.ZERO : remaining;
+    });
+  }
+
+  private record ConvertedJwt(Collection<GrantedAuthority> authorities, String principalName, Instant expiresAt) {
+  }
 }
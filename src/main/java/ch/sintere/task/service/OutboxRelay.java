@@ -0,0 +1,155 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.entities.OutboxEvent;
+import ch.sintere.task.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the outbox to Kafka, keyed by task id, and deletes the events the broker acknowledged.
+ * <p>
+ * A round claims up to {@code task.outbox.batch-size} of the oldest events in a short transaction: it locks them,
+ * skipping those locked by the relay of another instance, and marks them claimed for twice the send timeout, during
+ * which the other relays leave them alone. It then sends them all and waits for every acknowledgement without
+ * holding a connection or a lock, and deletes them in a second short transaction. A failed or timed out send
+ * releases the claim and its events are sent again; should the relay die mid-round, they are once the claim expires.
+ * Delivery is at least once, with the outbox row id in the {@code task-event-id} header to deduplicate. Events are
+ * taken in outbox id order, which is not commit order across instances (ids are allocated in blocks of 50), so
+ * consumers order the events of a task by {@code task.version} of the payload. A full batch
+ * is followed by the next one right away; otherwise the relay lingers {@code task.outbox.linger}, which bounds how
+ * long an event waits.
+ * <p>
+ * Exposes {@code task.outbox.published} and {@code task.outbox.failures} (failed rounds).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "task.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    public static final String EVENT_ID_HEADER = "task-event-id";
+    public static final String EVENT_TYPE_HEADER = "task-event-type";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimLease;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       PlatformTransactionManager transactionManager,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${task.outbox.topic:task-events}") String topic,
+                       @Value("${task.outbox.batch-size:500}") int batchSize,
+                       @Value("${task.outbox.send-timeout:30s}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        // Outlives the wait for acknowledgements, so that no other relay sends the events meanwhile
+        this.claimLease = sendTimeout.multipliedBy(2);
+        this.published = Counter.builder("task.outbox.published")
+                .description("Task change events published to Kafka and removed from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("task.outbox.failures")
+                .description("Outbox relay rounds whose events stay in the outbox because Kafka did not acknowledge them all")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.linger:200ms}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (KafkaException e) {
+            failures.increment();
+            log.warn("Outbox relay round failed, its events stay in the outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims the oldest unclaimed events, sends them and deletes them once all are acknowledged.
+     *
+     * @return the number of events relayed.
+     */
+    int relayBatch() {
+        var events = transactionTemplate.execute(status -> claimBatch());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        var ids = events.stream().map(OutboxEvent::getId).toList();
+        try {
+            // Sent back to back, so the producer packs them into as few requests as the broker allows
+            var sends = events.stream()
+                    .map(event -> kafkaTemplate.send(toRecord(event)))
+                    .toArray(CompletableFuture[]::new);
+            awaitAcknowledgements(CompletableFuture.allOf(sends));
+        } catch (KafkaException e) {
+            // Released right away, so that the next round sends them again rather than waiting for the claim to expire
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.claim(ids, null));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+        published.increment(events.size());
+        log.debug("Outbox batch relayed. events={}", events.size());
+        return events.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        var now = LocalDateTime.now();
+        var events = outboxEventRepository.findOldestUnclaimed(now, Limit.of(batchSize));
+        if (!events.isEmpty()) {
+            outboxEventRepository.claim(events.stream().map(OutboxEvent::getId).toList(), now.plus(claimLease));
+        }
+        return events;
+    }
+
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        var producerRecord = new ProducerRecord<>(topic, event.getTaskId().toString(), event.getPayload());
+        producerRecord.headers()
+                .add(EVENT_ID_HEADER, event.getId().toString().getBytes(StandardCharsets.UTF_8))
+                .add(EVENT_TYPE_HEADER, event.getType().name().getBytes(StandardCharsets.UTF_8));
+        return producerRecord;
+    }
+
+    private void awaitAcknowledgements(CompletableFuture<Void> acknowledgements) {
+        try {
+            acknowledgements.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Task events not acknowledged: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new KafkaException("Task events not acknowledged within " + sendTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting for task event acknowledgements", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskCursor;
+import ch.sintere.task.dto.TaskDueDate;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.event.TasksBecameOverdueEvent;
+import ch.sintere.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static ch.sintere.task.entities.Status.DONE;
+
+/**
+ * Keeps every task that is not DONE and has a due date in one bucket per day, so finding the overdue tasks is a
+ * walk over the buckets before today instead of a table scan.
+ * <p>
+ * Buckets are loaded with a streaming query before the application starts serving requests, then kept current
+ * by the service write methods once their transaction commits. A periodic rebuild picks up what those cannot see:
+ * writes of other instances and writes outside the service. An hourly tick announces the buckets that fell
+ * behind today since the previous one as {@link TasksBecameOverdueEvent}s; tasks already overdue at startup are
+ * not announced again.
+ */
+@Component
+@Slf4j
+public class OverdueTracker implements SmartInitializingSingleton {
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int eventBatchSize;
+
+    private final Object rebuildLock = new Object();
+
+    // Writes are serialized on this; reads walk the concurrent collections without locking. Swapped by a rebuild.
+    private volatile ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Integer>> idsByDueDate = new ConcurrentSkipListMap<>();
+    private volatile Map<Integer, LocalDate> dueDateById = new ConcurrentHashMap<>();
+    // The tracking changes committed while a rebuild reads the table, null otherwise; an empty due date untracks
+    private Map<Integer, Optional<LocalDate>> changedDuringRebuild;
+    private volatile LocalDate announcedBefore = LocalDate.now();
+
+    public OverdueTracker(TaskRepository taskRepository,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${task.overdue.event-batch-size:1000}") int eventBatchSize) {
+        this.taskRepository = taskRepository;
+        // Not read-only: a replica could still miss due dates of writes this tracker has already seen
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.eventBatchSize = eventBatchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Loads the buckets from the tasks table and swaps them in. Tracking changes committed meanwhile are replayed
+     * into them, so none is lost to a snapshot read before it.
+     */
+    @Scheduled(initialDelayString = "${task.overdue.rebuild-interval:1h}",
+            fixedDelayString = "${task.overdue.rebuild-interval:1h}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            var rebuiltBuckets = new ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Integer>>();
+            var rebuiltDueDates = new ConcurrentHashMap<Integer, LocalDate>();
+            synchronized (this) {
+                changedDuringRebuild = new LinkedHashMap<>();
+            }
+            try {
+                snapshotTransaction.executeWithoutResult(status -> {
+                    try (var dueDates = taskRepository.streamNotDoneDueDates()) {
+                        dueDates.forEach(taskDueDate ->
+                                add(rebuiltBuckets, rebuiltDueDates, taskDueDate.id(), taskDueDate.dueDate()));
+                    }
+                });
+                synchronized (this) {
+                    changedDuringRebuild.forEach((id, dueDate) -> {
+                        remove(rebuiltBuckets, rebuiltDueDates, id);
+                        dueDate.ifPresent(day -> add(rebuiltBuckets, rebuiltDueDates, id, day));
+                    });
+                    idsByDueDate = rebuiltBuckets;
+                    dueDateById = rebuiltDueDates;
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+            log.info("Overdue tracker loaded. tracked={}", rebuiltDueDates.size());
+        }
+    }
+
+    /**
+     * Starts, moves or stops tracking the task according to its current status and due date.
+     */
+    public void track(Task task) {
+        var id = task.getId();
+        var dueDate = task.getStatus() == DONE ? null : task.getDueDate();
+        AfterCommit.run(() -> retrack(id, dueDate));
+    }
+
+    public void untrack(Integer id) {
+        AfterCommit.run(() -> retrack(id, null));
+    }
+
+    /**
+     * Returns up to {@code limit} overdue tasks ordered by (dueDate, id), starting after {@code cursor}.
+     */
+    public List<TaskDueDate> findOverdue(TaskCursor cursor, int limit) {
+        var today = LocalDate.now();
+        var current = idsByDueDate;
+        var buckets = cursor == null
+                ? current.headMap(today, false)
+                : current.subMap(cursor.dueDate(), true, today, false);
+        var overdue = new ArrayList<TaskDueDate>(limit);
+        for (var bucket : buckets.entrySet()) {
+            var ids = cursor != null && bucket.getKey().equals(cursor.dueDate())
+                    ? bucket.getValue().tailSet(cursor.id(), false)
+                    : bucket.getValue();
+            for (var id : ids) {
+                if (overdue.size() == limit) {
+                    return overdue;
+                }
+                overdue.add(new TaskDueDate(id, bucket.getKey()));
+            }
+        }
+        return overdue;
+    }
+
+    @Scheduled(cron = "${task.overdue.tick-cron:0 0 * * * *}")
+    public void tick() {
+        tick(LocalDate.now());
+    }
+
+    void tick(LocalDate today) {
+        if (!today.isAfter(announcedBefore)) {
+            return;
+        }
+        var announced = 0;
+        for (var bucket : idsByDueDate.subMap(announcedBefore, true, today, false).entrySet()) {
+            var ids = List.copyOf(bucket.getValue());
+            for (int from = 0; from < ids.size(); from += eventBatchSize) {
+                var batch = ids.subList(from, Math.min(from + eventBatchSize, ids.size()));
+                eventPublisher.publishEvent(new TasksBecameOverdueEvent(bucket.getKey(), batch));
+            }
+            announced += ids.size();
+        }
+        announcedBefore = today;
+        log.info("Overdue tick. becameOverdue={}, tracked={}", announced, dueDateById.size());
+    }
+
+    private synchronized void retrack(Integer id, LocalDate dueDate) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(id, Optional.ofNullable(dueDate));
+        }
+        remove(idsByDueDate, dueDateById, id);
+        if (dueDate != null) {
+            add(idsByDueDate, dueDateById, id, dueDate);
+        }
+    }
+
+    private static void add(ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Integer>> buckets,
+                            Map<Integer, LocalDate> dueDates, Integer id, LocalDate dueDate) {
+        dueDates.put(id, dueDate);
+        buckets.computeIfAbsent(dueDate, day -> new ConcurrentSkipListSet<>()).add(id);
+    }
+
+    private static void remove(ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Integer>> buckets,
+                               Map<Integer, LocalDate> dueDates, Integer id) {
+        var dueDate = dueDates.remove(id);
+        if (dueDate == null) {
+            return;
+        }
+        var ids = buckets.get(dueDate);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            buckets.remove(dueDate);
+        }
+    }
+}
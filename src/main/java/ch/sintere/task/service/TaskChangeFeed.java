@@ -0,0 +1,155 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.event.TaskChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The latest task change events, numbered in commit order and kept in a ring buffer of
+ * {@code task.stream.buffer-size} entries, for the SSE stream to replay from a {@code Last-Event-ID}.
+ * <p>
+ * Writers append once their transaction commits and never wait for readers: each reader walks the ring from its own
+ * position and finds out it fell behind when the events it has not read yet were overwritten. Sequences start over
+ * on restart, so event ids are qualified by an epoch. Like the other in-memory views, the feed only sees the writes
+ * of this instance.
+ */
+@Component
+public class TaskChangeFeed {
+
+    /**
+     * An event with the task before and after the write; {@code before} is null for CREATED, {@code after} for DELETED.
+     */
+    public record Entry(long sequence, TaskChangedEvent.Type type, TaskDto before, TaskDto after, String json) {
+    }
+
+    /**
+     * Keeps the events of tasks having {@code status} and {@code priority} (when given) before or after the write,
+     * so that a client also learns about tasks leaving its list.
+     */
+    public record Filter(Status status, Priority priority) {
+
+        public boolean matches(Entry entry) {
+            return matches(entry.before()) || matches(entry.after());
+        }
+
+        private boolean matches(TaskDto task) {
+            return task != null
+                    && (status == null || status == task.status())
+                    && (priority == null || priority == task.priority());
+        }
+    }
+
+    /**
+     * Events read after a position; {@code missed} when some of those following it were already overwritten.
+     */
+    public record Batch(List<Entry> entries, boolean missed) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Entry[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // Sequence of the last appended event, 0 before the first; guarded by lock
+    private long last;
+
+    public TaskChangeFeed(@Value("${task.stream.buffer-size:10000}") int bufferSize) {
+        this.ring = new Entry[bufferSize];
+    }
+
+    /**
+     * Appends the event once the current transaction commits.
+     */
+    public void taskChanged(TaskChangedEvent.Type type, TaskDto before, TaskDto after, String json) {
+        AfterCommit.run(() -> append(type, before, after, json));
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * The sequence of an event id handed out by this feed, or empty when it comes from before a restart,
+     * is from the future, is followed by events the ring no longer holds or is not an event id at all.
+     * <p>
+     * The latter is what lets a dropped client recover: resuming after an id whose successors were overwritten
+     * could only be dropped again, so the caller must treat it like an unknown id and start over.
+     */
+    public OptionalLong sequenceOf(String eventId) {
+        var prefix = epoch + "-";
+        if (eventId == null || !eventId.startsWith(prefix)) {
+            return OptionalLong.empty();
+        }
+        try {
+            var sequence = Long.parseLong(eventId.substring(prefix.length()));
+            lock.lock();
+            try {
+                var oldest = Math.max(1, last - ring.length + 1);
+                return sequence < 0 || sequence > last || sequence + 1 < oldest
+                        ? OptionalLong.empty()
+                        : OptionalLong.of(sequence);
+            } finally {
+                lock.unlock();
+            }
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Returns up to {@code max} events following sequence {@code after}, waiting up to {@code timeout} for the
+     * next one when there are none yet.
+     */
+    public Batch read(long after, int max, Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            var nanos = timeout.toNanos();
+            while (last == after && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            var oldest = Math.max(1, last - ring.length + 1);
+            var from = Math.max(after + 1, oldest);
+            var to = Math.min(last, from + max - 1);
+            var entries = new ArrayList<Entry>((int) Math.max(0, to - from + 1));
+            for (var sequence = from; sequence <= to; sequence++) {
+                entries.add(ring[slot(sequence)]);
+            }
+            return new Batch(entries, after + 1 < oldest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(TaskChangedEvent.Type type, TaskDto before, TaskDto after, String json) {
+        lock.lock();
+        try {
+            last++;
+            ring[slot(last)] = new Entry(last, type, before, after, json);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+}
@@ -0,0 +1,57 @@
+package ch.sintere.task.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for domain outcomes that are not failures of the service itself, exposed as
+ * {@code task.outcomes{outcome=...}}. Latency is recorded separately by {@code @Timed} on the service and by
+ * Spring Data's repository invocation timers.
+ */
+@Component
+public class TaskMetrics {
+
+    static final String OUTCOMES = "task.outcomes";
+
+    private final Counter notFound;
+    private final Counter alreadyExists;
+    private final Counter batchConflict;
+    private final Counter statusUpdateRejected;
+    private final Counter versionMismatch;
+
+    public TaskMetrics(MeterRegistry meterRegistry) {
+        this.notFound = outcome(meterRegistry, "not_found");
+        this.alreadyExists = outcome(meterRegistry, "already_exists");
+        this.batchConflict = outcome(meterRegistry, "batch_conflict");
+        this.statusUpdateRejected = outcome(meterRegistry, "status_update_rejected");
+        this.versionMismatch = outcome(meterRegistry, "version_mismatch");
+    }
+
+    public void taskNotFound() {
+        notFound.increment();
+    }
+
+    public void taskAlreadyExists() {
+        alreadyExists.increment();
+    }
+
+    public void batchConflicts(int count) {
+        batchConflict.increment(count);
+    }
+
+    public void statusUpdateRejected() {
+        statusUpdateRejected.increment();
+    }
+
+    public void versionMismatch() {
+        versionMismatch.increment();
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(OUTCOMES)
+                .description("Task requests ending in a domain outcome other than success")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
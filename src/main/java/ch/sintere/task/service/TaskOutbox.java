@@ -0,0 +1,56 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.OutboxEvent;
+import ch.sintere.task.event.TaskChangedEvent;
+import ch.sintere.task.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends a {@link TaskChangedEvent} to the outbox table for every task write. The event is inserted in the
+ * transaction of the write, so it is published (by {@link OutboxRelay}) if and only if the write commits.
+ * Once committed, it is also handed to the {@link TaskChangeFeed} of the SSE stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TaskChangeFeed taskChangeFeed;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records the write of type {@code type} to task {@code taskId}, which turned {@code before} into {@code after}.
+     * {@code before} is null for CREATED and {@code after} for DELETED; the published event carries {@code after},
+     * or {@code before} for DELETED.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException when called outside a transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(TaskChangedEvent.Type type, Integer taskId, TaskDto before, TaskDto after) {
+        var occurredAt = LocalDateTime.now();
+        var payload = toJson(new TaskChangedEvent(type, taskId, after == null ? before : after, occurredAt));
+        outboxEventRepository.save(OutboxEvent.builder()
+                .taskId(taskId)
+                .type(type)
+                .payload(payload)
+                .createdAt(occurredAt)
+                .build());
+        taskChangeFeed.taskChanged(type, before, after, payload);
+    }
+
+    private String toJson(TaskChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Task event cannot be serialized: " + event, e);
+        }
+    }
+}
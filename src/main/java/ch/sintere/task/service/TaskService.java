@@ -1,18 +1,29 @@
 package ch.sintere.task.service;
 
+import ch.sintere.task.dto.PriorityUpdateSummary;
+import ch.sintere.task.dto.TaskBatchResult;
 import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskPage;
+import ch.sintere.task.dto.TaskSort;
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
     TaskDto addTask(TaskDto taskDto);
-    TaskDto updateTask(TaskDto taskDto, Integer id);
+    TaskDto addTask(TaskDto taskDto, String idempotencyKey);
+    List<TaskBatchResult> addTasks(List<TaskDto> taskDtos);
+    // expectedVersion: the version the caller's change is based on (If-Match), or null for whatever is current
+    TaskDto updateTask(TaskDto taskDto, Integer id, Long expectedVersion);
     TaskDto findTaskById(Integer id);
     Boolean deleteTask(Integer id);
-    List<TaskDto> findByStatus(Status status);
-    List<TaskDto> findByPriority(Priority priority);
-    TaskDto updateStatus(Integer id, TaskDto taskDto);
-    List<TaskDto> updatePriorityForAll(Priority oldPriority, Priority newPriority);
+    TaskPage findByStatus(Status status, TaskSort sort, String after, int limit);
+    TaskPage findByPriority(Priority priority, TaskSort sort, String after, int limit);
+    TaskPage findOverdue(String after, int limit);
+    TaskPage searchByTitle(String query, String after, int limit);
+    TaskDto updateStatus(Integer id, TaskDto taskDto, Long expectedVersion);
+    PriorityUpdateSummary updatePriorityForAll(Priority oldPriority, Priority newPriority);
+    long exportTasks(Consumer<TaskDto> consumer);
 }
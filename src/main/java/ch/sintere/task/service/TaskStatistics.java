@@ -0,0 +1,197 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskStats;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static ch.sintere.task.entities.Status.DONE;
+
+/**
+ * In-memory task counts per (status, priority), and how many of them are overdue, so that reading them never
+ * hits the database. A task is overdue when it is not DONE and its due date is before today.
+ * <p>
+ * The write paths report every change once it has committed. A periodic {@code GROUP BY} corrects whatever the
+ * deltas cannot see (bulk updates racing with inserts, writes done outside the service) and, at midnight,
+ * the tasks that became overdue overnight.
+ * <p>
+ * Each cell reads as {@code baseline + deltas}: the adders are never reset, a reconciliation only publishes a new
+ * baseline computed against the delta sum seen just before its query. Writes are therefore never lost to a
+ * reconciliation; one committing in the instant between that sum and the query snapshot may be counted twice
+ * until the next one.
+ */
+@Component
+@Slf4j
+public class TaskStatistics {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int CELLS = STATUSES.length * PRIORITIES.length;
+
+    private final TaskRepository taskRepository;
+    private final LongAdder[] countDeltas = newAdders();
+    private final LongAdder[] overdueDeltas = newAdders();
+    private volatile Baseline baseline = new Baseline(new long[CELLS], new long[CELLS], null);
+
+    public TaskStatistics(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Where a task is counted: its status, priority and whether it is overdue today.
+     */
+    public record Slot(Status status, Priority priority, boolean overdue) {
+    }
+
+    public Slot slotOf(Task task) {
+        var dueDate = task.getDueDate();
+        var overdue = task.getStatus() != DONE && dueDate != null && dueDate.isBefore(LocalDate.now());
+        return new Slot(task.getStatus(), task.getPriority(), overdue);
+    }
+
+    public void taskCreated(Task task) {
+        var slot = slotOf(task);
+        AfterCommit.run(() -> add(slot, 1));
+    }
+
+    public void taskDeleted(Task task) {
+        var slot = slotOf(task);
+        AfterCommit.run(() -> add(slot, -1));
+    }
+
+    /**
+     * @param before the slot of the task taken before it was modified.
+     */
+    public void taskChanged(Slot before, Task task) {
+        var after = slotOf(task);
+        if (before.equals(after)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            add(before, -1);
+            add(after, 1);
+        });
+    }
+
+    /**
+     * Moves every task counted under {@code oldPriority} to {@code newPriority}, in every status.
+     */
+    public void priorityChanged(Priority oldPriority, Priority newPriority) {
+        if (oldPriority == newPriority) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            var current = baseline;
+            for (var status : STATUSES) {
+                var from = cell(status, oldPriority);
+                var to = cell(status, newPriority);
+                var count = current.counts[from] + countDeltas[from].sum();
+                var overdue = current.overdue[from] + overdueDeltas[from].sum();
+                countDeltas[from].add(-count);
+                countDeltas[to].add(count);
+                overdueDeltas[from].add(-overdue);
+                overdueDeltas[to].add(overdue);
+            }
+        });
+    }
+
+    /**
+     * Current counts; reads 18 cells and nothing else.
+     */
+    public TaskStats snapshot() {
+        var current = baseline;
+        long total = 0;
+        long overdueTotal = 0;
+        var counts = new EnumMap<Status, Map<Priority, Long>>(Status.class);
+        var overdue = new EnumMap<Status, Map<Priority, Long>>(Status.class);
+        for (var status : STATUSES) {
+            var countsByPriority = new EnumMap<Priority, Long>(Priority.class);
+            var overdueByPriority = new EnumMap<Priority, Long>(Priority.class);
+            for (var priority : PRIORITIES) {
+                var cell = cell(status, priority);
+                var count = current.counts[cell] + countDeltas[cell].sum();
+                var overdueCount = current.overdue[cell] + overdueDeltas[cell].sum();
+                countsByPriority.put(priority, count);
+                overdueByPriority.put(priority, overdueCount);
+                total += count;
+                overdueTotal += overdueCount;
+            }
+            counts.put(status, countsByPriority);
+            overdue.put(status, overdueByPriority);
+        }
+        return new TaskStats(total, overdueTotal, counts, overdue, current.reconciledAt);
+    }
+
+    /**
+     * Replaces the counts with a {@code GROUP BY} over the tasks table; runs at startup, then periodically.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.stats.reconcile-interval:5m}")
+    public synchronized void reconcile() {
+        var countsSeen = sums(countDeltas);
+        var overdueSeen = sums(overdueDeltas);
+        var counts = new long[CELLS];
+        var overdue = new long[CELLS];
+        for (var taskCount : taskRepository.countByStatusAndPriority(LocalDate.now())) {
+            var cell = cell(taskCount.status(), taskCount.priority());
+            counts[cell] = taskCount.count();
+            overdue[cell] = taskCount.overdue();
+        }
+        var drift = 0L;
+        for (int cell = 0; cell < CELLS; cell++) {
+            drift += Math.abs(baseline.counts[cell] + countsSeen[cell] - counts[cell]);
+            counts[cell] -= countsSeen[cell];
+            overdue[cell] -= overdueSeen[cell];
+        }
+        baseline = new Baseline(counts, overdue, LocalDateTime.now());
+        log.debug("Task statistics reconciled. drift={}", drift);
+    }
+
+    /**
+     * Tasks due yesterday become overdue at midnight without any write telling us so.
+     */
+    @Scheduled(cron = "${task.stats.overdue-cron:0 0 0 * * *}")
+    public void reconcileOverdue() {
+        reconcile();
+    }
+
+    private void add(Slot slot, int delta) {
+        var cell = cell(slot.status(), slot.priority());
+        countDeltas[cell].add(delta);
+        if (slot.overdue()) {
+            overdueDeltas[cell].add(delta);
+        }
+    }
+
+    private static int cell(Status status, Priority priority) {
+        return status.ordinal() * PRIORITIES.length + priority.ordinal();
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        var sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static LongAdder[] newAdders() {
+        var adders = new LongAdder[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private record Baseline(long[] counts, long[] overdue, LocalDateTime reconciledAt) {
+    }
+}
@@ -0,0 +1,77 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static ch.sintere.task.config.CacheConfig.TASKS_BY_ID;
+
+/**
+ * What conditional GETs compare an {@code If-None-Match} with, answered from memory so that an unchanged
+ * resource costs a lookup and no query.
+ * <p>
+ * A single task is at the version of its entry in the {@link ch.sintere.task.config.CacheConfig#TASKS_BY_ID}
+ * cache; without an entry the caller has to ask the database. A list of tasks by status or by priority is at the
+ * change version of that status or priority, bumped once a write touching a task in it (before or after the
+ * write) has committed. Change versions start over on restart, so they are qualified by an epoch.
+ * <p>
+ * Like the other in-memory views, the change versions only see the writes of this instance.
+ */
+@Component
+public class TaskVersions {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final CacheManager cacheManager;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLongArray statusVersions = new AtomicLongArray(STATUSES.length);
+    private final AtomicLongArray priorityVersions = new AtomicLongArray(Priority.values().length);
+
+    public TaskVersions(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * The version of the cached task, or {@code null} when it is not cached.
+     */
+    public Long cachedVersion(Integer id) {
+        var cache = cacheManager.getCache(TASKS_BY_ID);
+        var taskDto = cache == null ? null : cache.get(id, TaskDto.class);
+        return taskDto == null ? null : taskDto.version();
+    }
+
+    public String ofStatus(Status status) {
+        return epoch + "-" + statusVersions.get(status.ordinal());
+    }
+
+    public String ofPriority(Priority priority) {
+        return epoch + "-" + priorityVersions.get(priority.ordinal());
+    }
+
+    /**
+     * Records a write to a task that has {@code status} and {@code priority} before or after it.
+     */
+    public void taskChanged(Status status, Priority priority) {
+        AfterCommit.run(() -> {
+            statusVersions.incrementAndGet(status.ordinal());
+            priorityVersions.incrementAndGet(priority.ordinal());
+        });
+    }
+
+    /**
+     * Records a bulk move between priorities, which may have changed tasks of every status.
+     */
+    public void priorityChanged(Priority oldPriority, Priority newPriority) {
+        AfterCommit.run(() -> {
+            for (var status : STATUSES) {
+                statusVersions.incrementAndGet(status.ordinal());
+            }
+            priorityVersions.incrementAndGet(oldPriority.ordinal());
+            priorityVersions.incrementAndGet(newPriority.ordinal());
+        });
+    }
+}
@@ -0,0 +1,260 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Counting Bloom filter over every task title, so that a uniqueness check on a title that certainly does not
+ * exist (almost every new title) skips its {@code SELECT}. A "might exist" answer still goes to the database.
+ * <p>
+ * Built with a streaming query before the application starts serving requests and kept current by the service
+ * write methods once their transaction commits: a delete or rename decrements the counters of the old title.
+ * A periodic rebuild drops what decrements cannot (saturated counters, writes done outside the service) and
+ * resizes the filter to the current number of titles.
+ * <p>
+ * Titles inserted by other instances stay unknown until that rebuild, so "absent" is only a hint for skipping the
+ * lookup: the inserts tolerate a taken title themselves, rejecting only that task, and a rename onto one is refused
+ * by the unique constraint.
+ * <p>
+ * Exposes {@code task.title-filter.checks{result=absent|false_positive|present}}, the observed false-positive rate
+ * being {@code false_positive / (false_positive + absent)}, the expected one as {@code task.title-filter.expected-fpp}
+ * and the footprint as {@code task.title-filter.memory}.
+ */
+@Component
+@Slf4j
+public class TitleFilter implements SmartInitializingSingleton {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int SATURATED = 0xFF;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final long expectedTitles;
+    private final double targetFpp;
+    private final Counter absent;
+    private final Counter falsePositive;
+    private final Counter present;
+    private final Object rebuildLock = new Object();
+
+    // Writes are serialized on this; lookups read the counters without locking. Null until the first build.
+    private volatile Filter filter;
+    private List<String> addedDuringRebuild;
+
+    public TitleFilter(TaskRepository taskRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${task.title-filter.expected-titles:1000000}") long expectedTitles,
+                       @Value("${task.title-filter.false-positive-rate:0.01}") double targetFpp) {
+        this.taskRepository = taskRepository;
+        // Not read-only, so the rebuild reads the primary rather than a replica that may miss the latest titles
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.expectedTitles = expectedTitles;
+        this.targetFpp = targetFpp;
+        this.absent = check(meterRegistry, "absent");
+        this.falsePositive = check(meterRegistry, "false_positive");
+        this.present = check(meterRegistry, "present");
+        Gauge.builder("task.title-filter.memory", this, titleFilter -> titleFilter.current(Filter::bytes))
+                .description("Size of the title filter counters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("task.title-filter.expected-fpp", this, titleFilter -> titleFilter.current(Filter::expectedFpp))
+                .description("False-positive rate expected from the number of titles in the title filter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * {@code false} when no task has this title; {@code true} when one may have it and the database must tell.
+     */
+    public boolean mightContain(String title) {
+        var current = filter;
+        if (current != null && !current.mightContain(title)) {
+            absent.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reports the database answer for titles {@link #mightContain} let through: {@code found} of the
+     * {@code candidates} existed, the others were false positives.
+     */
+    public void recordCheck(int candidates, int found) {
+        present.increment(found);
+        falsePositive.increment(candidates - found);
+    }
+
+    public void titleAdded(String title) {
+        AfterCommit.run(() -> add(title));
+    }
+
+    public void titleRemoved(String title) {
+        AfterCommit.run(() -> remove(title));
+    }
+
+    /**
+     * Builds a new filter from the tasks table, sized for twice the titles currently known (at least the
+     * expected number), and swaps it in. Titles added meanwhile are replayed into it; removals are not,
+     * which at worst leaves a false positive until the next rebuild.
+     */
+    @Scheduled(initialDelayString = "${task.title-filter.rebuild-interval:6h}",
+            fixedDelayString = "${task.title-filter.rebuild-interval:6h}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            var previous = filter;
+            var rebuilt = Filter.sizedFor(Math.max(expectedTitles, previous == null ? 0 : 2 * previous.titles), targetFpp);
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+            try {
+                snapshotTransaction.executeWithoutResult(status -> {
+                    try (var titles = taskRepository.streamTitles()) {
+                        titles.forEach(taskTitle -> rebuilt.add(taskTitle.title()));
+                    }
+                });
+                synchronized (this) {
+                    addedDuringRebuild.forEach(rebuilt::add);
+                    filter = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    addedDuringRebuild = null;
+                }
+            }
+            log.info("Title filter built. titles={}, bytes={}, hashes={}, expectedFpp={}",
+                    rebuilt.titles, rebuilt.bytes(), rebuilt.hashes, rebuilt.expectedFpp());
+        }
+    }
+
+    private double current(ToDoubleFunction<Filter> metric) {
+        var current = filter;
+        return current == null ? 0 : metric.applyAsDouble(current);
+    }
+
+    private synchronized void add(String title) {
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(title);
+        }
+        if (filter != null) {
+            filter.add(title);
+        }
+    }
+
+    private synchronized void remove(String title) {
+        if (filter != null) {
+            filter.remove(title);
+        }
+    }
+
+    private static Counter check(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("task.title-filter.checks")
+                .description("Title uniqueness checks by title filter answer and database outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One byte counter per slot, saturating at 255; a saturated counter is never decremented again.
+     */
+    static final class Filter {
+
+        private final byte[] counters;
+        private final int hashes;
+        private volatile long titles;
+
+        private Filter(int slots, int hashes) {
+            this.counters = new byte[slots];
+            this.hashes = hashes;
+        }
+
+        static Filter sizedFor(long titles, double fpp) {
+            var n = Math.max(titles, 1);
+            var slots = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            var hashes = (int) Math.max(1, Math.round((double) slots / n * Math.log(2)));
+            return new Filter((int) Math.min(slots, Integer.MAX_VALUE - 8), hashes);
+        }
+
+        boolean mightContain(String title) {
+            var hash = hash64(title);
+            for (int i = 0; i < hashes; i++) {
+                if ((byte) COUNTERS.getVolatile(counters, slot(hash, i)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Callers serialize the writes
+        void add(String title) {
+            var hash = hash64(title);
+            for (int i = 0; i < hashes; i++) {
+                var slot = slot(hash, i);
+                var count = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(counters, slot));
+                if (count < SATURATED) {
+                    COUNTERS.setVolatile(counters, slot, (byte) (count + 1));
+                }
+            }
+            titles++;
+        }
+
+        void remove(String title) {
+            var hash = hash64(title);
+            for (int i = 0; i < hashes; i++) {
+                var slot = slot(hash, i);
+                var count = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(counters, slot));
+                if (count > 0 && count < SATURATED) {
+                    COUNTERS.setVolatile(counters, slot, (byte) (count - 1));
+                }
+            }
+            titles = Math.max(0, titles - 1);
+        }
+
+        double bytes() {
+            return counters.length;
+        }
+
+        double expectedFpp() {
+            return Math.pow(1 - Math.exp(-hashes * (double) titles / counters.length), hashes);
+        }
+
+        // Double hashing: slot i is h1 + i * h2, both halves derived from one 64-bit hash of the title
+        private int slot(long hash, int i) {
+            var h1 = (int) hash;
+            var h2 = (int) (hash >>> 32) | 1;
+            return Math.floorMod(h1 + i * h2, counters.length);
+        }
+
+        private static long hash64(String title) {
+            var hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < title.length(); i++) {
+                hash = (hash ^ title.charAt(i)) * 0x100000001b3L;
+            }
+            // Finalizer of MurmurHash3, so that titles differing in their last characters spread over every bit
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
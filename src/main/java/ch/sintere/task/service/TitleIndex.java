@@ -0,0 +1,196 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.orm.jpa.vendor.Database;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Every task title, lower-cased and sorted, for databases without the title indexes of Postgres (H2): a title
+ * prefix is then found by a seek plus a walk over the matching titles, and a substring by walking the sorted titles
+ * in memory, instead of scanning the table. On Postgres the ordered and trigram indexes answer both and this index
+ * stays empty, so that searches see the titles written by every instance.
+ * <p>
+ * Loaded before the application starts serving requests, kept current by the service write methods once their
+ * transaction commits and rebuilt every {@code task.search.title-index.rebuild-interval}, which picks up the titles
+ * written by other instances or outside the service. Set {@code task.search.title-index.enabled=false} to leave all
+ * searches to the database.
+ */
+@Component
+@Slf4j
+public class TitleIndex implements SmartInitializingSingleton {
+
+    /**
+     * A lower-cased title and its task id, the order of search results.
+     */
+    public record Key(String title, Integer id) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::title).thenComparing(Key::id);
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final boolean enabled;
+    private final Object rebuildLock = new Object();
+
+    // Writes are serialized on this; reads walk the concurrent collections without locking. Swapped by a rebuild.
+    private volatile ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>(Key.ORDER);
+    private volatile Map<Integer, String> titleById = new ConcurrentHashMap<>();
+    // The titles committed while a rebuild reads the table, null otherwise; an empty title untracks
+    private Map<Integer, Optional<String>> changedDuringRebuild;
+
+    public TitleIndex(TaskRepository taskRepository,
+                      PlatformTransactionManager transactionManager,
+                      JpaProperties jpaProperties,
+                      @Value("${task.search.title-index.enabled:true}") boolean enabled) {
+        this.taskRepository = taskRepository;
+        // Read-write on purpose: read-only transactions go to the replicas, which may lag behind the writes tracked here
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled && jpaProperties.getDatabase() != Database.POSTGRESQL;
+    }
+
+    public static String normalize(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether title searches are answered from memory; {@code false} on Postgres or when disabled.
+     */
+    public boolean servesSearches() {
+        return enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Loads the titles from the tasks table and swaps them in. Titles committed meanwhile are replayed into them,
+     * so none is lost to a snapshot read before it.
+     */
+    @Scheduled(initialDelayString = "${task.search.title-index.rebuild-interval:1h}",
+            fixedDelayString = "${task.search.title-index.rebuild-interval:1h}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            var rebuiltKeys = new ConcurrentSkipListSet<>(Key.ORDER);
+            var rebuiltTitles = new ConcurrentHashMap<Integer, String>();
+            synchronized (this) {
+                changedDuringRebuild = new LinkedHashMap<>();
+            }
+            try {
+                snapshotTransaction.executeWithoutResult(status -> {
+                    try (var titles = taskRepository.streamTitles()) {
+                        titles.forEach(taskTitle -> add(rebuiltKeys, rebuiltTitles, taskTitle.id(), taskTitle.title()));
+                    }
+                });
+                synchronized (this) {
+                    changedDuringRebuild.forEach((id, title) -> {
+                        remove(rebuiltKeys, rebuiltTitles, id);
+                        title.ifPresent(current -> add(rebuiltKeys, rebuiltTitles, id, current));
+                    });
+                    keys = rebuiltKeys;
+                    titleById = rebuiltTitles;
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+            log.info("Title index loaded. titles={}", rebuiltTitles.size());
+        }
+    }
+
+    public void track(Task task) {
+        if (!enabled) {
+            return;
+        }
+        var id = task.getId();
+        var title = task.getTitle();
+        AfterCommit.run(() -> retrack(id, title));
+    }
+
+    public void untrack(Integer id) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> retrack(id, null));
+    }
+
+    /**
+     * Returns up to {@code limit} titles starting with {@code prefix} (lower-cased), after {@code after}.
+     */
+    public List<Key> findStartingWith(String prefix, Key after, int limit) {
+        var matches = new ArrayList<Key>(limit);
+        for (var key : keys.tailSet(max(after, new Key(prefix, 0)), false)) {
+            if (matches.size() == limit || !key.title().startsWith(prefix)) {
+                break;
+            }
+            matches.add(key);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns up to {@code limit} titles containing {@code part} (lower-cased) but not starting with it,
+     * after {@code after}. Walks the titles from {@code after} until the page is full.
+     */
+    public List<Key> findContaining(String part, Key after, int limit) {
+        var matches = new ArrayList<Key>(limit);
+        for (var key : keys.tailSet(after, false)) {
+            if (matches.size() == limit) {
+                break;
+            }
+            if (key.title().indexOf(part, 1) > 0 && !key.title().startsWith(part)) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    private static Key max(Key a, Key b) {
+        return Key.ORDER.compare(a, b) >= 0 ? a : b;
+    }
+
+    private synchronized void retrack(Integer id, String title) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(id, Optional.ofNullable(title));
+        }
+        remove(keys, titleById, id);
+        if (title != null) {
+            add(keys, titleById, id, title);
+        }
+    }
+
+    private static void add(ConcurrentSkipListSet<Key> keys, Map<Integer, String> titleById, Integer id, String title) {
+        var normalized = normalize(title);
+        titleById.put(id, normalized);
+        keys.add(new Key(normalized, id));
+    }
+
+    private static void remove(ConcurrentSkipListSet<Key> keys, Map<Integer, String> titleById, Integer id) {
+        var title = titleById.remove(id);
+        if (title != null) {
+            keys.remove(new Key(title, id));
+        }
+    }
+}
@@ -1,174 +1,583 @@
 package ch.sintere.task.service.impl;
 
+import ch.sintere.task.config.PrimaryReads;
+import ch.sintere.task.dto.PriorityUpdateSummary;
+import ch.sintere.task.dto.TaskBatchResult;
+import ch.sintere.task.dto.TaskCursor;
 import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskDueDate;
+import ch.sintere.task.dto.TaskPage;
+import ch.sintere.task.dto.TaskRow;
+import ch.sintere.task.dto.TaskSort;
 import ch.sintere.task.dto.TaskStatus;
+import ch.sintere.task.dto.TitleSearchCursor;
+import ch.sintere.task.dto.TitleSearchCursor.Phase;
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
 import ch.sintere.task.entities.Task;
+import ch.sintere.task.exception.InvalidCursorException;
 import ch.sintere.task.exception.TaskAlreadyExistException;
 import ch.sintere.task.exception.TaskDueDateInvalidException;
 import ch.sintere.task.exception.TaskNotFoundException;
+import ch.sintere.task.exception.TaskVersionMismatchException;
 import ch.sintere.task.mapper.TaskMapper;
 import ch.sintere.task.repository.TaskRepository;
+import ch.sintere.task.service.FieldComparator;
+import ch.sintere.task.service.IdempotencyStore;
+import ch.sintere.task.service.OverdueTracker;
+import ch.sintere.task.service.TaskMetrics;
+import ch.sintere.task.service.TaskOutbox;
 import ch.sintere.task.service.TaskService;
+import ch.sintere.task.service.TaskStatistics;
 import ch.sintere.task.service.TaskStatusValidator;
+import ch.sintere.task.service.TaskVersions;
+import ch.sintere.task.service.TitleFilter;
+import ch.sintere.task.service.TitleIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.lang.reflect.Field;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static ch.sintere.task.config.CacheConfig.TASKS_BY_ID;
 import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.event.TaskChangedEvent.Type.CREATED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.DELETED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.PRIORITY_CHANGED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.STATUS_CHANGED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.UPDATED;
 import static java.lang.String.format;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "task.service", description = "TaskService method latency", histogram = true)
 public class TaskServiceImpl implements TaskService, TaskStatusValidator {
 
+    static final int MAX_PAGE_SIZE = 500;
+    static final int TITLE_LOOKUP_CHUNK_SIZE = 1_000;
+    static final int PRIORITY_UPDATE_CHUNK_SIZE = 1_000;
+    static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final FieldComparator<Task, TaskDto> STATUS_ONLY_CHANGE =
+            FieldComparator.of(Task.class, TaskDto.class, Set.of("status"));
+
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final TaskMetrics taskMetrics;
+    private final TaskStatistics taskStatistics;
+    private final OverdueTracker overdueTracker;
+    private final TitleIndex titleIndex;
+    private final TitleFilter titleFilter;
+    private final TaskVersions taskVersions;
+    private final TaskOutbox taskOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
 
+    // A transaction template rather than @Transactional: the idempotent overload calls this one directly
     @Override
     public TaskDto addTask(TaskDto taskDto) {
-        log.info("addTask(TaskDto taskDto) start");
-        findByTitle(taskDto.title());
-        Task tasks = Task.builder()
-                .status(taskDto.status())
-                .priority(taskDto.priority())
-                .title(taskDto.title())
-                .build();
-        var savedTask = taskRepository.save(tasks);
-        log.info("Task created at: {}", savedTask.getCreatedAt());
-        log.info("addTask(TaskDto taskDto) end");
-        return taskMapper.toDto(savedTask);
+        log.debug("addTask(TaskDto taskDto) start");
+        var createdDto = transactionTemplate.execute(status -> {
+            // One round trip: the unique title constraint decides, so concurrent creates cannot both pass a pre-check
+            var savedTask = taskRepository.insertIfTitleAbsent(newTask(taskDto))
+                    .orElseThrow(() -> {
+                        log.warn("Task already exists by the provided title: {}", taskDto.title());
+                        taskMetrics.taskAlreadyExists();
+                        return new TaskAlreadyExistException(format("Task already exists by the provided title:: %s", taskDto.title()));
+                    });
+            taskCreated(savedTask);
+            log.debug("Task created at: {}", savedTask.getCreatedAt());
+            return taskMapper.toDto(savedTask);
+        });
+        log.debug("addTask(TaskDto taskDto) end");
+        return createdDto;
+    }
+
+    @Override
+    public TaskDto addTask(TaskDto taskDto, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return addTask(taskDto);
+        }
+        return idempotencyStore.createOnce(idempotencyKey, taskDto, () -> addTask(taskDto));
     }
 
     @Override
     @Transactional
-    public TaskDto updateTask(TaskDto taskDto, Integer id) {
-        log.info("updateTask(TaskDto taskDto, Integer id) start");
-        var existing  = findById(id);
-        mergeTask(taskDto, existing );
-        var updatedTask = taskRepository.save(existing );
-        log.info("Task updated at: {}", updatedTask.getUpdatedAt());
-        log.info("updateTask(TaskDto taskDto, Integer id) end");
-        return taskMapper.toDto(updatedTask);
+    public List<TaskBatchResult> addTasks(List<TaskDto> taskDtos) {
+        log.debug("addTasks(List<TaskDto> taskDtos) start. size={}", taskDtos.size());
+        var takenTitles = findExistingTitles(taskDtos);
+        var results = new ArrayList<TaskBatchResult>(taskDtos.size());
+        var newTasks = new ArrayList<Task>(taskDtos.size());
+        var newTaskIndexes = new ArrayList<Integer>(taskDtos.size());
+
+        for (int i = 0; i < taskDtos.size(); i++) {
+            var taskDto = taskDtos.get(i);
+            // add() also rejects a title repeated within the same batch
+            if (!takenTitles.add(taskDto.title())) {
+                results.add(TaskBatchResult.conflict(i, taskDto.title()));
+                continue;
+            }
+            results.add(null);
+            newTasks.add(newTask(taskDto));
+            newTaskIndexes.add(i);
+        }
+
+        // The lookup above only saves work: a title inserted since (by another request or instance) is rejected
+        // by the insert itself, for its own row only
+        var inserted = taskRepository.insertAllIfTitleAbsent(newTasks);
+        var created = 0;
+        for (int i = 0; i < inserted.size(); i++) {
+            var index = newTaskIndexes.get(i);
+            var savedTask = inserted.get(i);
+            if (savedTask.isPresent()) {
+                results.set(index, TaskBatchResult.created(index, taskCreated(savedTask.get())));
+                created++;
+            } else {
+                results.set(index, TaskBatchResult.conflict(index, taskDtos.get(index).title()));
+            }
+        }
+        var conflicts = taskDtos.size() - created;
+        taskMetrics.batchConflicts(conflicts);
+        log.info("addTasks(List<TaskDto> taskDtos) end. created={}, conflicts={}", created, conflicts);
+        return results;
     }
 
+    // Neither update locks the row while reading it: the write is one UPDATE matching the version that was read.
+    // Without If-Match a concurrent change only makes it re-read and try again.
     @Override
     @Transactional
-    public TaskDto updateStatus(Integer id, TaskDto taskDto) {
-        log.info("updateStatus({}, {}) start...", id, taskDto.status());
-        var existing = findById(id);
-        validateTaskDto(existing, taskDto);
-        existing.setStatus(taskDto.status());
-        log.info("updateStatus finished. newStatus={}", existing.getStatus());
-        return taskMapper.toDto(existing);
+    @CacheEvict(cacheNames = TASKS_BY_ID, key = "#id")
+    public TaskDto updateTask(TaskDto taskDto, Integer id, Long expectedVersion) {
+        log.debug("updateTask(TaskDto taskDto, Integer id, Long expectedVersion) start");
+        for (int attempt = 1; ; attempt++) {
+            var current = findCurrentRow(id, expectedVersion);
+            var renamed = !current.title().equals(taskDto.title());
+            if (renamed && isTitleTaken(taskDto.title())) {
+                log.warn("Task already exists by the provided title: {}", taskDto.title());
+                taskMetrics.taskAlreadyExists();
+                throw new TaskAlreadyExistException(format("Task already exists by the provided title:: %s", taskDto.title()));
+            }
+            var dueDate = taskDto.dueDate() == null ? current.dueDate() : validateDueDate(taskDto.dueDate());
+            var updatedAt = LocalDateTime.now();
+            var updated = taskRepository.updateIfVersionMatches(id, current.version(),
+                    taskDto.title(), taskDto.status(), taskDto.priority(), dueDate, updatedAt);
+            if (updated == 1) {
+                var updatedRow = new TaskRow(id, taskDto.title(), taskDto.status(), taskDto.priority(),
+                        current.createdAt(), updatedAt, dueDate, current.createdBy(), current.version() + 1);
+                taskChanged(current, updatedRow);
+                taskOutbox.taskChanged(UPDATED, id, current.toDto(), updatedRow.toDto());
+                log.debug("Task updated at: {}", updatedAt);
+                log.debug("updateTask(TaskDto taskDto, Integer id, Long expectedVersion) end");
+                return updatedRow.toDto();
+            }
+            retryOrFail(id, expectedVersion, attempt);
+        }
     }
 
     @Override
-    public List<TaskDto> updatePriorityForAll(Priority oldPriority, Priority newPriority) {
-        taskRepository.updatePriorityForAll(oldPriority, newPriority);
-        return taskRepository.findByPriority(newPriority)
-                .stream()
-                .map(taskMapper::toDto)
-                .toList();
+    @Transactional
+    @CacheEvict(cacheNames = TASKS_BY_ID, key = "#id")
+    public TaskDto updateStatus(Integer id, TaskDto taskDto, Long expectedVersion) {
+        log.debug("updateStatus({}, {}) start...", id, taskDto.status());
+        for (int attempt = 1; ; attempt++) {
+            var current = findCurrentRow(id, expectedVersion);
+            try {
+                validateTaskDto(toTask(current), taskDto);
+            } catch (IllegalArgumentException e) {
+                taskMetrics.statusUpdateRejected();
+                throw e;
+            }
+            var updatedAt = LocalDateTime.now();
+            if (taskRepository.updateStatusIfVersionMatches(id, current.version(), taskDto.status(), updatedAt) == 1) {
+                var updatedRow = new TaskRow(id, current.title(), taskDto.status(), current.priority(),
+                        current.createdAt(), updatedAt, current.dueDate(), current.createdBy(), current.version() + 1);
+                taskChanged(current, updatedRow);
+                taskOutbox.taskChanged(STATUS_CHANGED, id, current.toDto(), updatedRow.toDto());
+                log.debug("updateStatus finished. newStatus={}", updatedRow.status());
+                return updatedRow.toDto();
+            }
+            retryOrFail(id, expectedVersion, attempt);
+        }
+    }
+
+    // Deliberately not @Transactional: each id range commits on its own, with its change events, so locks are held
+    // for one chunk at a time. Tasks created after the run started (id above the max read up front) keep their priority.
+    @Override
+    public PriorityUpdateSummary updatePriorityForAll(Priority oldPriority, Priority newPriority) {
+        log.debug("updatePriorityForAll({}, {}) start", oldPriority, newPriority);
+        Objects.requireNonNull(oldPriority, "oldPriority");
+        Objects.requireNonNull(newPriority, "newPriority");
+        if (oldPriority == newPriority) {
+            return new PriorityUpdateSummary(oldPriority, newPriority, 0, 0, 0, null);
+        }
+        var start = System.nanoTime();
+        var maxId = taskRepository.findMaxId();
+        long updated = 0;
+        var chunks = 0;
+        try {
+            // Counted in longs: near Integer.MAX_VALUE an int bound would overflow and never reach maxId
+            for (long from = 0; from < maxId; from += PRIORITY_UPDATE_CHUNK_SIZE) {
+                var fromId = (int) from;
+                var toId = (int) Math.min(from + PRIORITY_UPDATE_CHUNK_SIZE, Integer.MAX_VALUE);
+                updated += transactionTemplate.execute(status -> updatePriorityInIdRange(oldPriority, newPriority, fromId, toId));
+                chunks++;
+            }
+            taskStatistics.priorityChanged(oldPriority, newPriority);
+        } finally {
+            // Also when a chunk failed, since the ones before it committed. The statistics of a partial run are
+            // left to the next reconcile.
+            evictAllTasks();
+            if (chunks > 0) {
+                taskVersions.priorityChanged(oldPriority, newPriority);
+            }
+        }
+        var elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        log.info("updatePriorityForAll end. updated={}, chunks={}, elapsedMillis={}", updated, chunks, elapsedMillis);
+        return new PriorityUpdateSummary(oldPriority, newPriority, updated, chunks, elapsedMillis, null);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = TASKS_BY_ID, key = "#id")
     public TaskDto findTaskById(Integer id) {
-        log.info("findTaskById(Integer id) start");
-        var task = findById(id);
-        TaskDto taskDto = taskMapper.toDto(task);
-        log.info("Task title is: {}", taskDto.title());
-        log.info("findTaskById(Integer id) end");
+        log.debug("findTaskById(Integer id) start");
+        // Cached, and its version answers conditional GETs: read from the primary
+        var taskDto = PrimaryReads.call(() -> taskRepository.findDtoById(id))
+                .orElseThrow(() -> taskNotFound(id));
+        log.debug("Task title is: {}", taskDto.title());
+        log.debug("findTaskById(Integer id) end");
         return taskDto;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = TASKS_BY_ID, key = "#id")
     public Boolean deleteTask(Integer id) {
-        log.info("deleteTask(Integer id) start");
+        log.debug("deleteTask(Integer id) start");
         var task = findById(id);
-        log.info("Delete Task by id: {}", task.getId());
+        log.debug("Delete Task by id: {}", task.getId());
         taskRepository.delete(task);
-        log.info("deleteTask(Integer id) end");
+        taskStatistics.taskDeleted(task);
+        overdueTracker.untrack(task.getId());
+        titleIndex.untrack(task.getId());
+        titleFilter.titleRemoved(task.getTitle());
+        taskVersions.taskChanged(task.getStatus(), task.getPriority());
+        taskOutbox.taskChanged(DELETED, task.getId(), taskMapper.toDto(task), null);
+        log.debug("deleteTask(Integer id) end");
         return Boolean.TRUE;
     }
 
     @Override
-    public List<TaskDto> findByStatus(Status status) {
-        var taskDtoList = taskRepository.findByStatus(status)
-                .stream()
-                .map(taskMapper::toDto).toList();
-        log.info("Number of status is:{}", taskDtoList.size());
-        return taskDtoList;
+    @Transactional(readOnly = true)
+    public TaskPage findByStatus(Status status, TaskSort sort, String after, int limit) {
+        // Served under the change version read before it: read from the primary, which is at least that recent
+        var page = PrimaryReads.call(() -> paginate(statusQueries(status), sort, after, limit));
+        log.debug("Number of status is:{}", page.content().size());
+        return page;
     }
 
     @Override
-    public List<TaskDto> findByPriority(Priority priority) {
-        return taskRepository.findByPriority(priority)
-                .stream()
-                .map(taskMapper::toDto).toList();
+    @Transactional(readOnly = true)
+    public TaskPage findByPriority(Priority priority, TaskSort sort, String after, int limit) {
+        return PrimaryReads.call(() -> paginate(priorityQueries(priority), sort, after, limit));
     }
 
-    public void validateOnlyStatusChanged(Task existing, TaskDto dto) {
-        var allowedToChange = Set.of("status");
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage findOverdue(String after, int limit) {
+        var pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        var cursor = after == null || after.isBlank() ? null : TaskCursor.decode(after, TaskSort.DUE_DATE);
+        if (cursor != null && cursor.dueDate() == null) {
+            // Issued for an undated task by /status or /priority; an undated task is never overdue
+            throw new InvalidCursorException("Cursor does not point at an overdue task");
+        }
+        if (cursor != null && !cursor.dueDate().isBefore(LocalDate.now())) {
+            // Nothing due today or later is overdue
+            return new TaskPage(List.of(), null);
+        }
+        // The tracker picks the page; the database is only asked for those rows, by primary key
+        var overdue = overdueTracker.findOverdue(cursor, pageSize);
+        var today = LocalDate.now();
+        var rows = findRowsInOrder(overdue.stream().map(TaskDueDate::id).toList());
+        // The tracker only sees the writes of this instance until its next rebuild: the rows have the last word,
+        // and put it right about the tasks they no longer list as overdue
+        var content = new ArrayList<TaskDto>(rows.size());
+        for (var row : rows) {
+            if (row.status() != DONE && row.dueDate() != null && row.dueDate().isBefore(today)) {
+                content.add(row.toDto());
+            } else {
+                overdueTracker.track(toTask(row));
+            }
+        }
+        if (rows.size() < overdue.size()) {
+            var found = rows.stream().map(TaskRow::id).collect(Collectors.toSet());
+            overdue.stream().map(TaskDueDate::id).filter(id -> !found.contains(id)).forEach(overdueTracker::untrack);
+        }
 
-        var taskFields = Task.class.getDeclaredFields();
-        for (var field : taskFields) {
-            field.setAccessible(true);
-            if (allowedToChange.contains(field.getName())) continue;
+        String nextCursor = null;
+        if (overdue.size() == pageSize) {
+            var last = overdue.getLast();
+            nextCursor = new TaskCursor(TaskSort.DUE_DATE, last.dueDate(), last.id()).encode();
+        }
+        return new TaskPage(content, nextCursor);
+    }
 
-            try {
-                var dtoFieldOpt = getFieldIfExists(dto.getClass(), field.getName());
-                if (dtoFieldOpt.isEmpty()) continue;
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage searchByTitle(String query, String after, int limit) {
+        if (query == null || query.isBlank()) {
+            return new TaskPage(List.of(), null);
+        }
+        var pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        var needle = TitleIndex.normalize(query.strip());
+        var cursor = after == null || after.isBlank() ? TitleSearchCursor.START : TitleSearchCursor.decode(after);
+
+        var rows = new ArrayList<TaskRow>(pageSize);
+        var phase = cursor.phase();
+        if (phase == Phase.PREFIX) {
+            rows.addAll(findTitlesStartingWith(needle, cursor.title(), cursor.id(), pageSize));
+            if (rows.size() < pageSize) {
+                // Prefix matches are exhausted: fill the remainder of the page with substring matches
+                phase = Phase.SUBSTRING;
+                cursor = new TitleSearchCursor(phase, "", 0);
+            }
+        }
+        if (phase == Phase.SUBSTRING) {
+            rows.addAll(findTitlesContaining(needle, cursor.title(), cursor.id(), pageSize - rows.size()));
+        }
 
-                var entityValue = field.get(existing);
-                var dtoValue = dtoFieldOpt.get().get(dto);
+        String nextCursor = null;
+        if (rows.size() == pageSize) {
+            var last = rows.getLast();
+            nextCursor = new TitleSearchCursor(phase, TitleIndex.normalize(last.title()), last.id()).encode();
+        }
+        log.debug("searchByTitle found {} tasks", rows.size());
+        return new TaskPage(rows.stream().map(TaskRow::toDto).toList(), nextCursor);
+    }
 
-                if (!Objects.equals(entityValue, dtoValue)) {
-                    throw new IllegalArgumentException(
-                            "Only 'status' field is allowed to change (violated: " + field.getName() + ")");
-                }
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(Consumer<TaskDto> consumer) {
+        log.debug("exportTasks() start");
+        long count = 0;
+        // Rows are projected straight into DTOs, so the persistence context stays empty however many are read
+        try (var tasks = taskRepository.streamAll()) {
+            for (var iterator = tasks.iterator(); iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
             }
         }
+        log.info("exportTasks() end. exported={}", count);
+        return count;
+    }
+
+    public void validateOnlyStatusChanged(Task existing, TaskDto dto) {
+        var changedField = STATUS_ONLY_CHANGE.firstChangedField(existing, dto);
+        if (changedField != null) {
+            taskMetrics.statusUpdateRejected();
+            throw new IllegalArgumentException(
+                    "Only 'status' field is allowed to change (violated: " + changedField + ")");
+        }
     }
 
     public void validateStatusTransition(TaskStatus oldStatus, TaskStatus newStatus) {
         if (oldStatus.status() == DONE && newStatus.status() != DONE) {
+            taskMetrics.statusUpdateRejected();
             throw new IllegalStateException("Cannot change status of a completed task.");
         }
     }
 
     private Task findById(Integer id) {
         return taskRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Task not found by the provided Id::{}", id);
-                    return new TaskNotFoundException(format("Task not found by the provided Id:: %s", id));
-                });
+                .orElseThrow(() -> taskNotFound(id));
+    }
+
+    private TaskNotFoundException taskNotFound(Integer id) {
+        log.warn("Task not found by the provided Id::{}", id);
+        taskMetrics.taskNotFound();
+        return new TaskNotFoundException(format("Task not found by the provided Id:: %s", id));
+    }
+
+    /**
+     * Reads the task as it is now, failing with 412 when it is no longer at {@code expectedVersion}.
+     */
+    private TaskRow findCurrentRow(Integer id, Long expectedVersion) {
+        var current = taskRepository.findRowById(id).orElseThrow(() -> taskNotFound(id));
+        if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+            throw versionMismatch(id, expectedVersion, current.version());
+        }
+        return current;
+    }
+
+    // A conditional update matched nothing: another write got in between the read and the update
+    private void retryOrFail(Integer id, Long expectedVersion, int attempt) {
+        if (expectedVersion != null) {
+            var current = taskRepository.findRowById(id).orElseThrow(() -> taskNotFound(id));
+            throw versionMismatch(id, expectedVersion, current.version());
+        }
+        if (attempt == MAX_UPDATE_ATTEMPTS) {
+            throw new OptimisticLockingFailureException(format("Task %s kept changing, gave up after %s attempts", id, attempt));
+        }
+        log.debug("Task {} changed while being updated, retrying", id);
+    }
+
+    private TaskVersionMismatchException versionMismatch(Integer id, Long expectedVersion, Long currentVersion) {
+        log.warn("Task {} is at version {}, not {}", id, currentVersion, expectedVersion);
+        taskMetrics.versionMismatch();
+        return new TaskVersionMismatchException(
+                format("Task %s is at version %s, not %s", id, currentVersion, expectedVersion));
+    }
+
+    // Keeps the in-memory views and the outbox in step with a newly inserted task; returns it as a DTO
+    private TaskDto taskCreated(Task task) {
+        taskStatistics.taskCreated(task);
+        overdueTracker.track(task);
+        titleIndex.track(task);
+        titleFilter.titleAdded(task.getTitle());
+        taskVersions.taskChanged(task.getStatus(), task.getPriority());
+        var taskDto = taskMapper.toDto(task);
+        taskOutbox.taskChanged(CREATED, task.getId(), null, taskDto);
+        return taskDto;
+    }
+
+    private void evictAllTasks() {
+        var cache = cacheManager.getCache(TASKS_BY_ID);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // Changes the priority of one id range and records each changed task in the outbox. Runs inside a transaction.
+    private int updatePriorityInIdRange(Priority oldPriority, Priority newPriority, int fromId, int toId) {
+        var rows = taskRepository.lockRowsByPriorityInIdRange(oldPriority, fromId, toId);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        var updated = taskRepository.updatePriorityByIdIn(rows.stream().map(TaskRow::id).toList(), newPriority);
+        for (var row : rows) {
+            var changed = new TaskDto(row.title(), row.status(), newPriority, row.createdAt(), row.updatedAt(),
+                    row.dueDate(), row.createdBy(), row.version() + 1);
+            taskOutbox.taskChanged(PRIORITY_CHANGED, row.id(), row.toDto(), changed);
+        }
+        return updated;
+    }
+
+    // Keeps the in-memory views in step with an update done without loading the entity
+    private void taskChanged(TaskRow before, TaskRow after) {
+        var updatedTask = toTask(after);
+        taskStatistics.taskChanged(taskStatistics.slotOf(toTask(before)), updatedTask);
+        overdueTracker.track(updatedTask);
+        taskVersions.taskChanged(before.status(), before.priority());
+        if (before.status() != after.status() || before.priority() != after.priority()) {
+            taskVersions.taskChanged(after.status(), after.priority());
+        }
+        if (!before.title().equals(after.title())) {
+            titleIndex.track(updatedTask);
+            titleFilter.titleRemoved(before.title());
+            titleFilter.titleAdded(after.title());
+        }
     }
 
-    private void mergeTask(TaskDto taskDto, Task task) {
-        task.setTitle(taskDto.title());
-        task.setStatus(taskDto.status());
-        task.setPriority(taskDto.priority());
-        validateDueDate(taskDto.dueDate(), task);
+    private static Task toTask(TaskRow row) {
+        return Task.builder()
+                .id(row.id())
+                .title(row.title())
+                .status(row.status())
+                .priority(row.priority())
+                .dueDate(row.dueDate())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .createdBy(row.createdBy())
+                .version(row.version())
+                .build();
+    }
+
+    private List<TaskRow> findTitlesStartingWith(String prefix, String afterTitle, Integer afterId, int limit) {
+        if (titleIndex.servesSearches()) {
+            var keys = titleIndex.findStartingWith(prefix, new TitleIndex.Key(afterTitle, afterId), limit);
+            // A task renamed where the index could not see it keeps its old key until the next rebuild
+            return findRowsInOrder(keys.stream().map(TitleIndex.Key::id).toList()).stream()
+                    .filter(row -> TitleIndex.normalize(row.title()).startsWith(prefix))
+                    .toList();
+        }
+        return taskRepository.findRowsByTitleStartingAfter(likeEscape(prefix) + "%", afterTitle, afterId, Limit.of(limit));
+    }
+
+    private List<TaskRow> findTitlesContaining(String part, String afterTitle, Integer afterId, int limit) {
+        if (titleIndex.servesSearches()) {
+            var keys = titleIndex.findContaining(part, new TitleIndex.Key(afterTitle, afterId), limit);
+            return findRowsInOrder(keys.stream().map(TitleIndex.Key::id).toList()).stream()
+                    .filter(row -> TitleIndex.normalize(row.title()).indexOf(part, 1) > 0)
+                    .toList();
+        }
+        var escaped = likeEscape(part);
+        return taskRepository.findRowsByTitleContainingAfter("%" + escaped + "%", escaped + "%", afterTitle, afterId, Limit.of(limit));
+    }
+
+    private static String likeEscape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Loads the rows of {@code ids} by primary key, in the order of {@code ids}; ids deleted meanwhile are skipped.
+     */
+    private List<TaskRow> findRowsInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var rowsById = taskRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskRow::id, Function.identity()));
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Only the titles the filter cannot rule out are looked up; usually none, and the query is skipped
+    private HashSet<String> findExistingTitles(List<TaskDto> taskDtos) {
+        var titles = taskDtos.stream().map(TaskDto::title).distinct().filter(titleFilter::mightContain).toList();
+        var existing = new HashSet<String>();
+        for (int from = 0; from < titles.size(); from += TITLE_LOOKUP_CHUNK_SIZE) {
+            var chunk = titles.subList(from, Math.min(from + TITLE_LOOKUP_CHUNK_SIZE, titles.size()));
+            existing.addAll(taskRepository.findExistingTitles(chunk));
+        }
+        titleFilter.recordCheck(titles.size(), existing.size());
+        return existing;
     }
 
-    private void findByTitle(String title) {
-        if(taskRepository.findByTitle(title).isPresent()) {
-            log.warn("Task already exists by the provided title: {}", title);
-            throw  new TaskAlreadyExistException(format("Task already exists by the provided title:: %s", title));
+    private boolean isTitleTaken(String title) {
+        if (!titleFilter.mightContain(title)) {
+            return false;
         }
+        var taken = taskRepository.findByTitle(title).isPresent();
+        titleFilter.recordCheck(1, taken ? 1 : 0);
+        return taken;
+    }
+
+    private Task newTask(TaskDto taskDto) {
+        return Task.builder()
+                .status(taskDto.status())
+                .priority(taskDto.priority())
+                .title(taskDto.title())
+                .build();
     }
 
     private void validateTaskDto(Task task, TaskDto taskDto) {
@@ -183,27 +592,98 @@ public class TaskServiceImpl implements TaskService, TaskStatusValidator {
         }
     }
 
-    private void validateDueDate(LocalDate dueDate, Task task) {
-        if (dueDate == null) return;
+    private LocalDate validateDueDate(LocalDate dueDate) {
         if(!isDueDateNotInPast(dueDate)) {
             throw new TaskDueDateInvalidException(format("Due date shall be in present or in future:: dueDate is %s", dueDate));
         }
-        task.setDueDate(dueDate);
+        return dueDate;
     }
 
     private boolean isDueDateNotInPast(LocalDate dueDate) {
         var now = LocalDate.now();
-        log.info("To is: {}", dueDate);
+        log.debug("To is: {}", dueDate);
         return dueDate.isEqual(now) || now.isBefore(dueDate);
     }
 
-    private Optional<Field> getFieldIfExists(Class<?> clazz, String fieldName) {
-        try {
-            Field f = clazz.getDeclaredField(fieldName);
-            f.setAccessible(true);
-            return Optional.of(f);
-        } catch (NoSuchFieldException e) {
-            return Optional.empty();
+    private TaskPage paginate(KeysetQueries queries, TaskSort sort, String after, int limit) {
+        var pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        var cursor = after == null || after.isBlank() ? null : TaskCursor.decode(after, sort);
+
+        List<TaskRow> rows;
+        if (sort == TaskSort.ID) {
+            rows = queries.afterId(cursor == null ? 0 : cursor.id(), Limit.of(pageSize));
+        } else {
+            rows = new ArrayList<>(pageSize);
+            var undatedAfterId = 0;
+            if (cursor == null) {
+                rows.addAll(queries.firstDated(Limit.of(pageSize)));
+            } else if (cursor.dueDate() != null) {
+                rows.addAll(queries.afterDueDate(cursor.dueDate(), cursor.id(), Limit.of(pageSize)));
+            } else {
+                undatedAfterId = cursor.id();
+            }
+            // Dated tasks are exhausted: fill the remainder of the page with undated ones
+            if (rows.size() < pageSize) {
+                rows.addAll(queries.undatedAfterId(undatedAfterId, Limit.of(pageSize - rows.size())));
+            }
+        }
+
+        String nextCursor = null;
+        if (rows.size() == pageSize) {
+            var last = rows.getLast();
+            var lastDueDate = sort == TaskSort.DUE_DATE ? last.dueDate() : null;
+            nextCursor = new TaskCursor(sort, lastDueDate, last.id()).encode();
         }
+        return new TaskPage(rows.stream().map(TaskRow::toDto).toList(), nextCursor);
+    }
+
+    private KeysetQueries statusQueries(Status status) {
+        return new KeysetQueries() {
+            public List<TaskRow> afterId(Integer id, Limit limit) {
+                return taskRepository.findRowsByStatusAfterId(status, id, limit);
+            }
+
+            public List<TaskRow> firstDated(Limit limit) {
+                return taskRepository.findRowsByStatusFirstDated(status, limit);
+            }
+
+            public List<TaskRow> afterDueDate(LocalDate dueDate, Integer id, Limit limit) {
+                return taskRepository.findRowsByStatusAfterDueDate(status, dueDate, id, limit);
+            }
+
+            public List<TaskRow> undatedAfterId(Integer id, Limit limit) {
+                return taskRepository.findRowsByStatusUndatedAfterId(status, id, limit);
+            }
+        };
+    }
+
+    private KeysetQueries priorityQueries(Priority priority) {
+        return new KeysetQueries() {
+            public List<TaskRow> afterId(Integer id, Limit limit) {
+                return taskRepository.findRowsByPriorityAfterId(priority, id, limit);
+            }
+
+            public List<TaskRow> firstDated(Limit limit) {
+                return taskRepository.findRowsByPriorityFirstDated(priority, limit);
+            }
+
+            public List<TaskRow> afterDueDate(LocalDate dueDate, Integer id, Limit limit) {
+                return taskRepository.findRowsByPriorityAfterDueDate(priority, dueDate, id, limit);
+            }
+
+            public List<TaskRow> undatedAfterId(Integer id, Limit limit) {
+                return taskRepository.findRowsByPriorityUndatedAfterId(priority, id, limit);
+            }
+        };
+    }
+
+    /**
+     * The four keyset queries backing one filter dimension (status or priority).
+     */
+    private interface KeysetQueries {
+        List<TaskRow> afterId(Integer id, Limit limit);
+        List<TaskRow> firstDated(Limit limit);
+        List<TaskRow> afterDueDate(LocalDate dueDate, Integer id, Limit limit);
+        List<TaskRow> undatedAfterId(Integer id, Limit limit);
     }
 }
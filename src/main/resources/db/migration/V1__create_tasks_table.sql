@@ -0,0 +1,16 @@
+-- Schema previously created by Hibernate (ddl-auto: update); existing databases are baselined at this version
+
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tasks (
+    id         INTEGER      NOT NULL,
+    title      VARCHAR(255) NOT NULL,
+    status     VARCHAR(255) NOT NULL,
+    priority   VARCHAR(255) NOT NULL,
+    due_date   DATE,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    created_by VARCHAR(255) NOT NULL DEFAULT 'SYSTEM',
+    CONSTRAINT tasks_pkey PRIMARY KEY (id),
+    CONSTRAINT tasks_title_key UNIQUE (title)
+);
@@ -0,0 +1,13 @@
+-- Built CONCURRENTLY so that indexing a large, live table does not block writes.
+-- Each index carries id last so keyset pages (WHERE ... AND id > :id ORDER BY id) are read in index order.
+
+-- findByStatus / findByPriority sorted by id; the priority index also serves the chunked bulk priority update
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_id ON tasks (status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_priority_id ON tasks (priority, id);
+
+-- findByStatus / findByPriority sorted by due date, undated tasks last (due_date IS NULL is index-searchable)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_due_date_id ON tasks (status, due_date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_priority_due_date_id ON tasks (priority, due_date, id);
+
+-- Tasks still to be done, by due date; DONE tasks pile up over time and are left out
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_not_done_due_date ON tasks (due_date, id) WHERE status <> 'D';
@@ -0,0 +1,3 @@
+-- Trigram operator classes for the title search index. Kept apart from V4 because CREATE INDEX CONCURRENTLY
+-- cannot share a migration with transactional statements.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
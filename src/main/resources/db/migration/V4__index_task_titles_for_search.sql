@@ -0,0 +1,7 @@
+-- Title search matches lower(title) LIKE 'q%' / '%q%' and pages by (lower(title), id).
+
+-- Trigram index: narrows both patterns to the matching rows once the query has three characters or more
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_lower_title_trgm ON tasks USING gin (lower(title) gin_trgm_ops);
+
+-- Ordered index: lets short queries walk titles in page order and stop at the page size
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_lower_title_id ON tasks (lower(title), id);
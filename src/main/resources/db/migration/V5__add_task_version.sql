@@ -0,0 +1,4 @@
+-- Optimistic locking: every update bumps the version, conditional updates match on it (If-Match).
+-- A constant default is stored in the catalog, so adding the column does not rewrite the table.
+
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Transactional outbox: every task write appends its change event here in the same transaction, and the relay
+-- publishes the rows to Kafka and deletes them. Rows only live until published, so the primary key is the only index.
+
+CREATE SEQUENCE task_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE task_outbox (
+    id         BIGINT       NOT NULL,
+    task_id    INTEGER      NOT NULL,
+    type       VARCHAR(32)  NOT NULL,
+    payload    TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT task_outbox_pkey PRIMARY KEY (id)
+);
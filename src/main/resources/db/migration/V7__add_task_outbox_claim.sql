@@ -0,0 +1,5 @@
+-- Outbox lease: the relay claims a batch in a short transaction, publishes it without holding any lock or connection
+-- and deletes it afterwards. Until claimed_until, relays of other instances leave the rows alone.
+-- Nullable without a default, so adding the column does not rewrite the table.
+
+ALTER TABLE task_outbox ADD COLUMN claimed_until TIMESTAMP(6);
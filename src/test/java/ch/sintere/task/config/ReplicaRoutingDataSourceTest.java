@@ -0,0 +1,151 @@
+package ch.sintere.task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and its replica; each knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private final DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadYourWrites readYourWrites;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2(PRIMARY_URL);
+        replica = h2(REPLICA_URL);
+        createDatabase(primary, "primary");
+        createDatabase(replica, "replica");
+        var replicaProperties = new ReplicaProperties(
+                List.of(new ReplicaProperties.Replica(REPLICA_URL, null, null)), Duration.ofMinutes(1));
+        readYourWrites = dataSourceConfig.readYourWrites(replicaProperties);
+        dataSource = dataSourceConfig.dataSource(primary, replicaProperties, readYourWrites);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(readYourWrites);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        ((AutoCloseable) dataSource).close();
+        for (var database : List.of(primary, replica)) {
+            new JdbcTemplate(database).execute("DROP ALL OBJECTS");
+            database.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_shouldGoToTheReplica_andOthersToThePrimary() {
+        //When
+        var readOnly = readOnlyTransaction.execute(status -> databaseName());
+        var readWrite = readWriteTransaction.execute(status -> databaseName());
+
+        //Then
+        assertThat(readOnly).isEqualTo("replica");
+        assertThat(readWrite).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactions_shouldStayOnThePrimary_forAUserWhoJustWrote() {
+        //Given
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE db SET writes = writes + 1"));
+
+        //When
+        var alice = readOnlyTransaction.execute(status -> databaseName());
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_USER"));
+        var bob = readOnlyTransaction.execute(status -> databaseName());
+
+        //Then
+        assertThat(alice).isEqualTo("primary");
+        assertThat(bob).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransactions_shouldStayOnThePrimary_forPrimaryReads() {
+        //When
+        var primaryRead = readOnlyTransaction.execute(status -> PrimaryReads.call(this::databaseName));
+        var read = readOnlyTransaction.execute(status -> databaseName());
+
+        //Then
+        assertThat(primaryRead).isEqualTo("primary");
+        assertThat(read).isEqualTo("replica");
+    }
+
+    @Test
+    void transactionsOfTheSameThread_shouldEachBeRoutedOnTheirOwn() {
+        //When: as the transactions of one request, without open-in-view pinning a connection
+        var readWrite = readWriteTransaction.execute(status -> databaseName());
+        var readOnly = readOnlyTransaction.execute(status -> databaseName());
+
+        //Then
+        assertThat(readWrite).isEqualTo("primary");
+        assertThat(readOnly).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyConnections_shouldBeOpenedWithTheCredentialsTheyAreAskedWith() throws Exception {
+        //Given
+        var replicaPool = mock(HikariDataSource.class);
+        when(replicaPool.getConnection("reader", "secret")).thenReturn(mock(Connection.class));
+
+        //When
+        try (var routing = new ReplicaRoutingDataSource(primary, List.of(replicaPool), readYourWrites);
+             var connection = routing.getConnection("reader", "secret")) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        //Then
+        verify(replicaPool).getConnection("reader", "secret");
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db", String.class);
+    }
+
+    private static HikariDataSource h2(String url) {
+        var dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    private static void createDatabase(DataSource dataSource, String name) {
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE db (name VARCHAR(16), writes INT)");
+        jdbc.update("INSERT INTO db VALUES (?, 0)", name);
+    }
+}
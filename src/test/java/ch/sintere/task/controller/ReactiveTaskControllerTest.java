@@ -0,0 +1,81 @@
+package ch.sintere.task.controller;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.exception.TaskNotFoundException;
+import ch.sintere.task.repository.ReactiveTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.OPEN;
+import static java.time.LocalDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ReactiveTaskControllerTest {
+
+    @Mock
+    private ReactiveTaskRepository reactiveTaskRepository;
+
+    @InjectMocks
+    private ReactiveTaskController reactiveTaskController;
+
+    private TaskDto taskDto;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+
+        taskDto = new TaskDto("My Task", OPEN, HIGH, now(), null, LocalDate.now().plusDays(1), "user1", null);
+    }
+
+    @Test
+    void findTaskById_shouldReturnTask() {
+        //Given
+        when(reactiveTaskRepository.findDtoById(1)).thenReturn(Mono.just(taskDto));
+
+        //When
+        var task = reactiveTaskController.findTaskById(1).block();
+
+        //Then
+        assertThat(task).isEqualTo(taskDto);
+    }
+
+    @Test
+    void findTaskById_shouldFailWithNotFound_whenTaskDoesNotExist() {
+        //Given
+        when(reactiveTaskRepository.findDtoById(1)).thenReturn(Mono.empty());
+
+        //When
+        var task = reactiveTaskController.findTaskById(1);
+
+        //Then
+        assertThatThrownBy(task::block)
+                .isInstanceOf(TaskNotFoundException.class)
+                .hasMessage("Task not found by the provided Id:: 1");
+    }
+
+    @Test
+    void findByStatus_shouldStreamTasks() {
+        //Given
+        when(reactiveTaskRepository.findDtosByStatus(OPEN)).thenReturn(Flux.just(taskDto, taskDto));
+
+        //When
+        var tasks = reactiveTaskController.findByStatus(OPEN).collectList().block();
+
+        //Then
+        assertThat(tasks).containsExactly(taskDto, taskDto);
+
+        //Verify interaction
+        verify(reactiveTaskRepository).findDtosByStatus(OPEN);
+    }
+}
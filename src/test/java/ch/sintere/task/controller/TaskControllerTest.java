@@ -1,37 +1,98 @@
 package ch.sintere.task.controller;
 
 import ch.sintere.task.dto.PriorityUpdateRequest;
+import ch.sintere.task.dto.PriorityUpdateSummary;
+import ch.sintere.task.dto.TaskBatchResult;
 import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskPage;
+import ch.sintere.task.dto.TaskStats;
 import ch.sintere.task.entities.Status;
+import ch.sintere.task.handler.GlobalExceptionHandler;
 import ch.sintere.task.service.TaskService;
+import ch.sintere.task.service.TaskStatistics;
+import ch.sintere.task.service.TaskVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-
+import org.mockito.Spy;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
-
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static ch.sintere.task.config.BinaryFormatConfig.APPLICATION_SMILE;
+import static ch.sintere.task.config.BinaryFormatConfig.smileObjectMapper;
+import static ch.sintere.task.config.CacheConfig.TASKS_BY_ID;
+import static ch.sintere.task.dto.TaskSort.DUE_DATE;
+import static ch.sintere.task.dto.TaskSort.ID;
 import static ch.sintere.task.entities.Priority.*;
 import static ch.sintere.task.entities.Status.OPEN;
 import static java.time.LocalDateTime.now;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 import static org.springframework.http.HttpStatus.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class TaskControllerTest {
 
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private MappingJackson2SmileHttpMessageConverter smileConverter =
+            new MappingJackson2SmileHttpMessageConverter(smileObjectMapper(Jackson2ObjectMapperBuilder.json()));
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(TASKS_BY_ID);
+
+    @Spy
+    private TaskVersions taskVersions = new TaskVersions(cacheManager);
+
     @InjectMocks
     private TaskController taskController;
 
     private TaskDto taskDto;
 
+    private static ServletWebRequest get() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest getIfNoneMatch(String eTag) {
+        var request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @BeforeEach
     void setUp() {
         openMocks(this);
@@ -43,16 +104,32 @@ class TaskControllerTest {
                 now(),
                 null,
                 LocalDate.now().plusDays(1),
-                "user1"
+                "user1",
+                3L
         );
     }
 
+    @Test
+    void addTask_shouldAnswerBadRequest_whenTheTitleIsTooLong() throws Exception {
+        //Given
+        var mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        var body = objectMapper.writeValueAsString(Map.of("title", "x".repeat(256), "status", "OPEN", "priority", "HIGH"));
+
+        //When / Then
+        mockMvc.perform(post("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Task title shall have at most 255 characters"));
+        verify(taskService, never()).addTask(any(), any());
+    }
+
     @Test
     void addTask_shouldReturnCreatedTask() {
-        when(taskService.addTask(taskDto)).thenReturn(taskDto);
+        when(taskService.addTask(taskDto, "key-1")).thenReturn(taskDto);
 
         //When
-        var response = taskController.addTask(taskDto);
+        var response = taskController.addTask(taskDto, "key-1");
 
         //Then
         assertAll("Add Task Assertions",
@@ -65,7 +142,29 @@ class TaskControllerTest {
         );
 
         //Verify interaction
-        verify(taskService).addTask(taskDto);
+        verify(taskService).addTask(taskDto, "key-1");
+    }
+
+    @Test
+    void addTasks_shouldReturnResultPerItem() {
+        //Given
+        var taskDtos = List.of(taskDto, taskDto);
+        var results = List.of(TaskBatchResult.created(0, taskDto), TaskBatchResult.conflict(1, taskDto.title()));
+        when(taskService.addTasks(taskDtos)).thenReturn(results);
+
+        //When
+        var response = taskController.addTasks(taskDtos);
+
+        //Then
+        assertAll("Add Tasks Assertions",
+                () -> {
+                    assertThat(response.getStatusCode()).isEqualTo(OK);
+                    assertThat(response.getBody()).containsExactlyElementsOf(results);
+                }
+        );
+
+        //Verify interaction
+        verify(taskService).addTasks(taskDtos);
     }
 
     @Test
@@ -76,7 +175,7 @@ class TaskControllerTest {
         when(taskService.findTaskById(taskId)).thenReturn(taskDto);
 
         //When
-        var response = taskController.findTaskById(taskId);
+        var response = taskController.findTaskById(taskId, get());
 
         //Then
         assertAll("Find Task Assertions",
@@ -94,63 +193,173 @@ class TaskControllerTest {
     }
 
     @Test
-    void findByStatus_shouldReturnList() {
+    void getStats_shouldReturnInMemoryCounts() {
+        //Given
+        var stats = new TaskStats(1, 0, Map.of(OPEN, Map.of(HIGH, 1L)), Map.of(), null);
+        when(taskStatistics.snapshot()).thenReturn(stats);
+
+        //When
+        var response = taskController.getStats();
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isEqualTo(stats);
+        verify(taskService, never()).findByStatus(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findByStatus_shouldReturnPage() {
         //Given
         var status = OPEN;
-        when(taskService.findByStatus(status)).thenReturn(List.of(taskDto));
+        when(taskService.findByStatus(status, ID, null, 50)).thenReturn(new TaskPage(List.of(taskDto), "next"));
 
         //When
-        var response = taskController.findByStatus(status);
+        var response = taskController.findByStatus(status, null, 50, ID, get());
 
         //Then
         assertAll("Find By Status Assertions",
                 () -> {
                     assertThat(response.getBody()).isNotNull();
-                    assertThat(response.getBody()).hasSize(1);
+                    assertThat(response.getBody().content()).hasSize(1);
+                    assertThat(response.getBody().nextCursor()).isEqualTo("next");
                     assertThat(response.getStatusCode()).isEqualTo(OK);
-                    assertThat(response.getBody().getFirst())
+                    assertThat(response.getBody().content().getFirst())
                             .extracting(TaskDto::title, TaskDto::status, TaskDto::priority)
                             .containsExactly("My Task", status, HIGH);
                 }
         );
 
         //Verify interaction
-        verify(taskService).findByStatus(status);
+        verify(taskService).findByStatus(status, ID, null, 50);
     }
 
     @Test
-    void findByPriority_shouldReturnList() {
+    void findByPriority_shouldReturnPage() {
         //Given
         var priority = HIGH;
 
-        when(taskService.findByPriority(priority)).thenReturn(List.of(taskDto));
+        when(taskService.findByPriority(priority, DUE_DATE, "cursor", 10)).thenReturn(new TaskPage(List.of(taskDto), null));
 
         //When
-        var response = taskController.findByPriority(priority);
+        var response = taskController.findByPriority(priority, "cursor", 10, DUE_DATE, get());
 
         //Then
         assertAll("Find By Priority Assertions",
                 () -> {
                     assertThat(response.getStatusCode()).isEqualTo(OK);
-                    assertThat(response.getBody()).hasSize(1);
-                    assertThat(response.getBody().getFirst())
+                    assertThat(response.getBody().content()).hasSize(1);
+                    assertThat(response.getBody().nextCursor()).isNull();
+                    assertThat(response.getBody().content().getFirst())
                             .extracting(TaskDto::title, TaskDto::status, TaskDto::priority)
                             .containsExactly("My Task", OPEN, priority);
                 }
         );
 
         //Verify interaction
-        verify(taskService).findByPriority(priority);
+        verify(taskService).findByPriority(priority, DUE_DATE, "cursor", 10);
+    }
+
+    @Test
+    void exportTasks_shouldStreamOneJsonDocumentPerLine() throws Exception {
+        //Given
+        doAnswer(invocation -> {
+            Consumer<TaskDto> consumer = invocation.getArgument(0);
+            consumer.accept(taskDto);
+            consumer.accept(taskDto);
+            return 2L;
+        }).when(taskService).exportTasks(any());
+        var outputStream = new ByteArrayOutputStream();
+
+        //When
+        var response = taskController.exportTasks();
+        response.getBody().writeTo(outputStream);
+
+        //Then
+        var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertAll("Export Tasks Assertions",
+                () -> {
+                    assertThat(response.getStatusCode()).isEqualTo(OK);
+                    assertThat(lines).hasSize(2);
+                    // version is read-only: written out, never read back from a request body
+                    assertThat(objectMapper.readValue(lines[1], TaskDto.class))
+                            .usingRecursiveComparison().ignoringFields("version").isEqualTo(taskDto);
+                    assertThat(lines[1]).contains("\"version\":3");
+                }
+        );
+    }
+
+    @Test
+    void exportTasksAsSmile_shouldStreamOneSmileValuePerTask() throws Exception {
+        //Given
+        doAnswer(invocation -> {
+            Consumer<TaskDto> consumer = invocation.getArgument(0);
+            consumer.accept(taskDto);
+            consumer.accept(taskDto);
+            return 2L;
+        }).when(taskService).exportTasks(any());
+        var outputStream = new ByteArrayOutputStream();
+
+        //When
+        var response = taskController.exportTasksAsSmile();
+        response.getBody().writeTo(outputStream);
+
+        //Then
+        List<TaskDto> exported = smileConverter.getObjectMapper().readerFor(TaskDto.class)
+                .<TaskDto>readValues(outputStream.toByteArray()).readAll();
+        assertAll("Export Tasks as Smile Assertions",
+                () -> {
+                    assertThat(response.getHeaders().getContentType()).isEqualTo(APPLICATION_SMILE);
+                    assertThat(exported).hasSize(2);
+                    assertThat(exported.get(1)).usingRecursiveComparison().ignoringFields("version").isEqualTo(taskDto);
+                }
+        );
+    }
+
+    @Test
+    void findTaskById_shouldAnswer304FromTheCache_whenTheTaskIsUnchanged() {
+        //Given
+        cacheManager.getCache(TASKS_BY_ID).put(1, taskDto);
+        var request = getIfNoneMatch("\"3\"");
+
+        //When
+        var response = taskController.findTaskById(1, request);
+
+        //Then
+        assertThat(response).isNull();
+        assertThat(request.getResponse().getStatus()).isEqualTo(NOT_MODIFIED.value());
+        verify(taskService, never()).findTaskById(any());
+    }
+
+    @Test
+    void findByStatus_shouldAnswer304WithoutQuerying_untilATaskWithThatStatusChanges() {
+        //Given
+        when(taskService.findByStatus(OPEN, ID, null, 50)).thenReturn(new TaskPage(List.of(taskDto), null));
+        var eTag = taskController.findByStatus(OPEN, null, 50, ID, get()).getHeaders().getETag();
+        var unchanged = getIfNoneMatch(eTag);
+        var changed = getIfNoneMatch(eTag);
+
+        //When
+        var unchangedResponse = taskController.findByStatus(OPEN, null, 50, ID, unchanged);
+        taskVersions.taskChanged(OPEN, LOW);
+        var changedResponse = taskController.findByStatus(OPEN, null, 50, ID, changed);
+
+        //Then
+        assertThat(eTag).startsWith("W/");
+        assertThat(unchangedResponse).isNull();
+        assertThat(unchanged.getResponse().getStatus()).isEqualTo(NOT_MODIFIED.value());
+        assertThat(changedResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+        verify(taskService, times(2)).findByStatus(OPEN, ID, null, 50);
     }
 
     @Test
     void updateTask_shouldReturnUpdatedTask() {
         //Given
         var taskId = 1;
-        when(taskService.updateTask(taskDto, taskId)).thenReturn(taskDto);
+        when(taskService.updateTask(taskDto, taskId, null)).thenReturn(taskDto);
 
         //When
-        var response = taskController.updateTask(taskDto, taskId);
+        var response = taskController.updateTask(taskDto, taskId, null);
 
         //Then
         assertAll("Update Task Assertions",
@@ -163,7 +372,7 @@ class TaskControllerTest {
         );
 
         //Verify interaction
-        verify(taskService).updateTask(taskDto, taskId);
+        verify(taskService).updateTask(taskDto, taskId, null);
     }
 
     @Test
@@ -176,13 +385,14 @@ class TaskControllerTest {
                 now(),
                 now(),
                 LocalDate.now().plusDays(2),
-                "user1"
+                "user1",
+                4L
         );
 
-        when(taskService.updateStatus(1, updatedDto)).thenReturn(updatedDto);
+        when(taskService.updateStatus(1, updatedDto, 3L)).thenReturn(updatedDto);
 
         //When
-        var response = taskController.updateStatus(1, updatedDto);
+        var response = taskController.updateStatus(1, updatedDto, "\"3\"");
 
         //Then
         assertAll("Update Status Assertions",
@@ -191,37 +401,76 @@ class TaskControllerTest {
                     assertThat(response.getBody())
                             .extracting(TaskDto::title, TaskDto::status)
                             .containsExactly("My Task", Status.DONE);
+                    assertThat(response.getHeaders().getETag()).isEqualTo("\"4\"");
                 }
         );
 
         //Verify interaction
-        verify(taskService).updateStatus(1, updatedDto);
+        verify(taskService).updateStatus(1, updatedDto, 3L);
+    }
+
+    @Test
+    void updatePriorityForAll_shouldAnswerBadRequest_whenAPriorityIsMissingOrUnchanged() throws Exception {
+        //Given
+        var mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        //When / Then
+        mockMvc.perform(put("/api/v1/tasks/priority").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newPriority\":\"LOW\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Priority update shall have an old priority"));
+        mockMvc.perform(put("/api/v1/tasks/priority").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPriority\":\"LOW\",\"newPriority\":\"LOW\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Priority update shall change the priority"));
+        verify(taskService, never()).updatePriorityForAll(any(), any());
     }
 
     @Test
-    void updatePriorityForAll_shouldReturnUpdatedTasks() {
+    void updatePriorityForAll_shouldReturnSummaryOnly_byDefault() {
         //Given
         PriorityUpdateRequest request = new PriorityUpdateRequest(LOW, MEDIUM);
 
         when(taskService.updatePriorityForAll(LOW, MEDIUM))
-                .thenReturn(List.of(taskDto));
+                .thenReturn(new PriorityUpdateSummary(LOW, MEDIUM, 7, 1, 3, null));
 
         //When
-        var response = taskController.updatePriorityForAll(request);
+        var response = taskController.updatePriorityForAll(request, false, 50);
 
         //Then
         assertAll("Update Priority Assertions",
                 () -> {
                     assertThat(response.getStatusCode()).isEqualTo(OK);
-                    assertThat(response.getBody()).hasSize(1);
-                    assertThat(response.getBody().getFirst())
-                            .extracting(TaskDto::title, TaskDto::priority)
-                            .containsExactly("My Task", HIGH);
+                    assertThat(response.getBody().updated()).isEqualTo(7);
+                    assertThat(response.getBody().tasks()).isNull();
                 }
         );
 
         //Verify interaction
         verify(taskService).updatePriorityForAll(LOW, MEDIUM);
+        verify(taskService, never()).findByPriority(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void updatePriorityForAll_shouldAttachFirstPageOfTasks_whenRequested() {
+        //Given
+        PriorityUpdateRequest request = new PriorityUpdateRequest(LOW, MEDIUM);
+
+        when(taskService.updatePriorityForAll(LOW, MEDIUM))
+                .thenReturn(new PriorityUpdateSummary(LOW, MEDIUM, 1, 1, 3, null));
+        when(taskService.findByPriority(MEDIUM, ID, null, 10))
+                .thenReturn(new TaskPage(List.of(taskDto), "next"));
+
+        //When
+        var response = taskController.updatePriorityForAll(request, true, 10);
+
+        //Then
+        assertThat(response.getBody().tasks().content())
+                .extracting(TaskDto::title)
+                .containsExactly("My Task");
+        assertThat(response.getBody().tasks().nextCursor()).isEqualTo("next");
     }
 
     @Test
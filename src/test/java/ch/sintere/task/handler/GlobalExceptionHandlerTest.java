@@ -0,0 +1,61 @@
+package ch.sintere.task.handler;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    @Test
+    void handleDataIntegrityViolationException_shouldReportATitleConflict_forTheTitleConstraint() {
+        //Given
+        var ex = violation("23505", "tasks_title_key");
+
+        //When
+        var response = globalExceptionHandler.handleDataIntegrityViolationException(ex);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(response.getBody().getDetail()).isEqualTo("A task with this title already exists");
+    }
+
+    @Test
+    void handleDataIntegrityViolationException_shouldNotBlameTheTitle_forAnotherConstraint() {
+        //Given: a NOT NULL violation
+        var ex = violation("23502", null);
+
+        //When
+        var response = globalExceptionHandler.handleDataIntegrityViolationException(ex);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(response.getBody().getDetail()).isEqualTo("Request violates a constraint of the database");
+    }
+
+    @Test
+    void handleDataIntegrityViolationException_shouldAnswerBadRequest_forAValueTooLongForItsColumn() {
+        //Given
+        var ex = violation("22001", null);
+
+        //When
+        var response = globalExceptionHandler.handleDataIntegrityViolationException(ex);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody().getDetail()).doesNotContain("title");
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState, String constraintName) {
+        var sqlException = new SQLException("ERROR: some driver message naming tables and values", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+}
@@ -38,7 +38,8 @@ class TaskMapperTest {
                 createdAt,
                 null,
                 null,
-                createdBy
+                createdBy,
+                null
         );
 
         //When
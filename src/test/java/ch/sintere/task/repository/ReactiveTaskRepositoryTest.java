@@ -0,0 +1,131 @@
+package ch.sintere.task.repository;
+
+import ch.sintere.task.dto.TaskDto;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Priority.LOW;
+import static ch.sintere.task.entities.Priority.MEDIUM;
+import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.entities.Status.IN_PROGRESS;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the repository against an in-memory H2 database over r2dbc-h2, with the tasks table created by the Flyway
+ * migrations, so that the SQL, the column names and the status and priority codes are checked together.
+ */
+class ReactiveTaskRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private ConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private ReactiveTaskRepository reactiveTaskRepository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///reactive-tasks?options=DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V1__create_tasks_table.sql"),
+                new ClassPathResource("db/migration/V5__add_task_version.sql"))
+                .populate(connectionFactory)
+                .block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        reactiveTaskRepository = new ReactiveTaskRepository(databaseClient);
+
+        // Inserted out of id order, so that the ORDER BY is what sorts them
+        insert(3, "Write report", "IP", "H", LocalDate.of(2024, 4, 1), 2);
+        insert(1, "Plan sprint", "O", "L", null, 0);
+        insert(2, "Review code", "IP", "M", null, 5);
+        insert(4, "Ship release", "D", "H", null, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DROP ALL OBJECTS").then().block();
+    }
+
+    @Test
+    void findDtoById_shouldMapEveryColumn_whenTheTaskExists() {
+        //When
+        var task = reactiveTaskRepository.findDtoById(3).block();
+
+        //Then
+        assertThat(task).isEqualTo(new TaskDto("Write report", IN_PROGRESS, HIGH, CREATED_AT,
+                CREATED_AT.plusHours(3), LocalDate.of(2024, 4, 1), "alice", 2L));
+    }
+
+    @Test
+    void findDtoById_shouldBeEmpty_whenTheTaskDoesNotExist() {
+        //When
+        var task = reactiveTaskRepository.findDtoById(99).block();
+
+        //Then
+        assertThat(task).isNull();
+    }
+
+    @Test
+    void findDtosByStatus_shouldMatchTheStatusCode_inIdOrder() {
+        //When
+        var tasks = reactiveTaskRepository.findDtosByStatus(IN_PROGRESS).collectList().block();
+
+        //Then
+        assertThat(tasks).extracting(TaskDto::title, TaskDto::status, TaskDto::version)
+                .containsExactly(
+                        tuple("Review code", IN_PROGRESS, 5L),
+                        tuple("Write report", IN_PROGRESS, 2L));
+    }
+
+    @Test
+    void findDtosByPriority_shouldMatchThePriorityCode_inIdOrder() {
+        //When
+        var tasks = reactiveTaskRepository.findDtosByPriority(HIGH).collectList().block();
+
+        //Then
+        assertThat(tasks).extracting(TaskDto::title).containsExactly("Write report", "Ship release");
+        assertThat(reactiveTaskRepository.findDtosByPriority(MEDIUM).collectList().block())
+                .extracting(TaskDto::title).containsExactly("Review code");
+    }
+
+    @Test
+    void findAllDtos_shouldReturnEveryTask_inIdOrder() {
+        //When
+        var tasks = reactiveTaskRepository.findAllDtos().collectList().block();
+
+        //Then
+        assertThat(tasks).extracting(TaskDto::title, TaskDto::status, TaskDto::priority)
+                .containsExactly(
+                        tuple("Plan sprint", OPEN, LOW),
+                        tuple("Review code", IN_PROGRESS, MEDIUM),
+                        tuple("Write report", IN_PROGRESS, HIGH),
+                        tuple("Ship release", DONE, HIGH));
+    }
+
+    private void insert(int id, String title, String status, String priority, LocalDate dueDate, long version) {
+        var spec = databaseClient.sql("""
+                        INSERT INTO tasks (id, title, status, priority, due_date, created_at, updated_at, created_by, version)
+                        VALUES (:id, :title, :status, :priority, :dueDate, :createdAt, :updatedAt, 'alice', :version)
+                        """)
+                .bind("id", id)
+                .bind("title", title)
+                .bind("status", status)
+                .bind("priority", priority)
+                .bind("createdAt", CREATED_AT)
+                .bind("updatedAt", CREATED_AT.plusHours(id))
+                .bind("version", version);
+        spec = dueDate == null ? spec.bindNull("dueDate", LocalDate.class) : spec.bind("dueDate", dueDate);
+        spec.then().block();
+    }
+}
@@ -0,0 +1,101 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DatabaseBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofMillis(50), meterRegistry);
+
+    @Test
+    void guard_shouldProceedAndReleaseThePermit_whenASlotIsFree() throws Throwable {
+        //Given
+        var joinPoint = joinPoint();
+        when(joinPoint.proceed()).thenReturn("result");
+
+        //When
+        var first = bulkhead.guard(joinPoint);
+        var second = bulkhead.guard(joinPoint);
+
+        //Then
+        assertThat(first).isEqualTo("result");
+        assertThat(second).isEqualTo("result");
+        assertThat(meterRegistry.get("task.bulkhead.available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void guard_shouldRejectWithDatabaseBusyException_whenNoSlotFreesUpWithinTheQueueTimeout() throws Throwable {
+        //Given
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingJoinPoint = joinPoint();
+        when(blockingJoinPoint.proceed()).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return null;
+        });
+        var holder = CompletableFuture.runAsync(() -> {
+            try {
+                bulkhead.guard(blockingJoinPoint);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //When & Then
+        try {
+            assertThatThrownBy(() -> bulkhead.guard(joinPoint()))
+                    .isInstanceOf(DatabaseBusyException.class)
+                    .hasMessage("All 1 database slots are busy, retry later");
+            assertThat(meterRegistry.get("task.bulkhead.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    void constructor_shouldLeaveTheReservedConnectionsOutOfThePermits_whenMaxConcurrentIsNotSet() {
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withBean(SimpleMeterRegistry.class)
+                .withUserConfiguration(DatabaseBulkhead.class)
+                .withPropertyValues("spring.datasource.hikari.maximum-pool-size=15",
+                        "task.bulkhead.reserved-connections=5")
+                .run(context -> assertThat(context.getBean(SimpleMeterRegistry.class)
+                        .get("task.bulkhead.available").gauge().value()).isEqualTo(10));
+    }
+
+    @Test
+    void constructor_shouldRejectTheConfiguration_whenTheReserveTakesTheWholePool() {
+        assertThatThrownBy(() -> new DatabaseBulkhead(0, Duration.ofMillis(50), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("task.bulkhead needs at least one permit, got 0; lower reserved-connections");
+    }
+
+    private ProceedingJoinPoint joinPoint() {
+        var joinPoint = mock(ProceedingJoinPoint.class);
+        var signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("findTaskById");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+}
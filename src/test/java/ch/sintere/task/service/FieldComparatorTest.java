@@ -0,0 +1,73 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Priority.LOW;
+import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldComparatorTest {
+
+    private final FieldComparator<Task, TaskDto> comparator = FieldComparator.of(Task.class, TaskDto.class, Set.of("status"));
+
+    @Test
+    void firstChangedField_shouldReturnNull_whenOnlyMutableFieldsDiffer() {
+        //Given
+        var task = createTask("Title", OPEN, HIGH);
+        var taskDto = new TaskDto("Title", DONE, HIGH, null, null, LocalDate.of(2030, 1, 1), null, null);
+
+        //When
+        var changedField = comparator.firstChangedField(task, taskDto);
+
+        //Then
+        assertThat(changedField).isNull();
+    }
+
+    @Test
+    void firstChangedField_shouldReturnTheFieldName_whenAnImmutableFieldDiffers() {
+        //Given
+        var task = createTask("Title", OPEN, HIGH);
+        var taskDto = new TaskDto("Title", OPEN, LOW, null, null, LocalDate.of(2030, 1, 1), null, null);
+
+        //When
+        var changedField = comparator.firstChangedField(task, taskDto);
+
+        //Then
+        assertThat(changedField).isEqualTo("priority");
+    }
+
+    @Test
+    void firstChangedField_shouldIgnoreFieldsTheEntityDoesNotDeclare() {
+        //Given
+        // createdAt, updatedAt and createdBy live in BaseEntity, id has no DTO counterpart
+        var task = createTask("Title", OPEN, HIGH);
+        var taskDto = new TaskDto("Title", OPEN, HIGH, LocalDateTime.now(), LocalDateTime.now(), LocalDate.of(2030, 1, 1), "someone", null);
+
+        //When
+        var changedField = comparator.firstChangedField(task, taskDto);
+
+        //Then
+        assertThat(changedField).isNull();
+    }
+
+    private Task createTask(String title, Status status, Priority priority) {
+        return Task.builder()
+                .id(7)
+                .title(title)
+                .status(status)
+                .priority(priority)
+                .dueDate(LocalDate.of(2030, 1, 1))
+                .createdBy("SYSTEM")
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final TaskDto REQUEST = new TaskDto("Title", OPEN, HIGH, null, null, null, null, null);
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(Duration.ofMinutes(5), 100);
+
+    @Test
+    void createOnce_shouldMakeAConcurrentRetryWaitForTheFirstCreation() throws Exception {
+        //Given: the first creation is still running
+        var creating = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var creations = new AtomicInteger();
+        var first = CompletableFuture.supplyAsync(() -> idempotencyStore.createOnce("key", REQUEST, () -> {
+            creations.incrementAndGet();
+            creating.countDown();
+            await(release);
+            return REQUEST;
+        }));
+        assertThat(creating.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //When
+        var retry = CompletableFuture.supplyAsync(() -> idempotencyStore.createOnce("key", REQUEST, () -> {
+            creations.incrementAndGet();
+            return REQUEST;
+        }));
+        release.countDown();
+
+        //Then
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void createOnce_shouldForgetTheKey_whenTheCreationFails() {
+        //Given
+        assertThatThrownBy(() -> idempotencyStore.createOnce("key", REQUEST, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        //When
+        var created = idempotencyStore.createOnce("key", REQUEST, () -> REQUEST);
+
+        //Then
+        assertThat(created).isSameAs(REQUEST);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ch.sintere.task.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class JwtAuthConverterTest {
+
+    private static final String RESOURCE_ID = "conde-rest-api";
+
+    private final JwtAuthConverter jwtAuthConverter = new JwtAuthConverter("preferred_username", RESOURCE_ID, 100);
+
+    @Test
+    void convert_shouldMapScopesResourceRolesAndPrincipal() {
+        //Given
+        var jwt = createJwt("token-1", "alice", Instant.now().plusSeconds(300));
+
+        //When
+        var authentication = jwtAuthConverter.convert(jwt);
+
+        //Then
+        assertAll(
+                () -> assertThat(authentication.getName()).isEqualTo("alice"),
+                () -> assertThat(authentication.getAuthorities())
+                        .extracting(GrantedAuthority::getAuthority)
+                        .containsExactlyInAnyOrder("SCOPE_read", "ROLE_USER", "ROLE_ADMIN")
+        );
+    }
+
+    @Test
+    void convert_shouldReuseConvertedAuthorities_whenTheSameTokenIsPresentedAgain() {
+        //Given
+        var expiresAt = Instant.now().plusSeconds(300);
+        jwtAuthConverter.convert(createJwt("token-2", "alice", expiresAt));
+
+        //When
+        // Same token value with different claims: only a cache hit can still yield the first principal
+        var second = jwtAuthConverter.convert(createJwt("token-2", "bob", expiresAt));
+
+        //Then
+        assertThat(second.getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void convert_shouldConvertAgain_forADifferentToken() {
+        //Given
+        var expiresAt = Instant.now().plusSeconds(300);
+        jwtAuthConverter.convert(createJwt("token-3", "alice", expiresAt));
+
+        //When
+        var second = jwtAuthConverter.convert(createJwt("token-4", "bob", expiresAt));
+
+        //Then
+        assertThat(second.getName()).isEqualTo("bob");
+    }
+
+    @Test
+    void convert_shouldKeyTokensByTheirJti_whenTheyHaveOne() {
+        //Given
+        var expiresAt = Instant.now().plusSeconds(300);
+        jwtAuthConverter.convert(createJwt("token-6", "alice", expiresAt, "jti-1"));
+
+        //When
+        var sameId = jwtAuthConverter.convert(createJwt("token-7", "bob", expiresAt, "jti-1"));
+        var otherId = jwtAuthConverter.convert(createJwt("token-6", "bob", expiresAt, "jti-2"));
+
+        //Then
+        assertAll(
+                () -> assertThat(sameId.getName()).isEqualTo("alice"),
+                () -> assertThat(otherId.getName()).isEqualTo("bob")
+        );
+    }
+
+    @Test
+    void convert_shouldConvertEveryTime_whenCacheIsDisabled() {
+        //Given
+        var uncachedConverter = new JwtAuthConverter("preferred_username", RESOURCE_ID, 0);
+        var expiresAt = Instant.now().plusSeconds(300);
+        uncachedConverter.convert(createJwt("token-5", "alice", expiresAt));
+
+        //When
+        var second = uncachedConverter.convert(createJwt("token-5", "bob", expiresAt));
+
+        //Then
+        assertThat(second.getName()).isEqualTo("bob");
+    }
+
+    private Jwt createJwt(String tokenValue, String username, Instant expiresAt) {
+        return createJwt(tokenValue, username, expiresAt, null);
+    }
+
+    private Jwt createJwt(String tokenValue, String username, Instant expiresAt, String jti) {
+        return Jwt.withTokenValue(tokenValue)
+                .jti(jti)
+                .header("alg", "RS256")
+                .subject(username + "-id")
+                .claim("preferred_username", username)
+                .claim("scope", "read")
+                .claim("resource_access", Map.of(RESOURCE_ID, Map.of("roles", List.of("USER", "ADMIN"))))
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.entities.OutboxEvent;
+import ch.sintere.task.event.TaskChangedEvent;
+import ch.sintere.task.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static ch.sintere.task.event.TaskChangedEvent.Type.CREATED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.DELETED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+@EmbeddedKafka(topics = OutboxRelayTest.TOPIC, partitions = 1)
+class OutboxRelayTest {
+
+    static final String TOPIC = "task-events";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        openMocks(this);
+        var producerProperties = KafkaTestUtils.producerProps(broker);
+        producerProperties.put("key.serializer", StringSerializer.class);
+        producerProperties.put("value.serializer", StringSerializer.class);
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProperties);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The template only closes producers of a factory it created itself
+        producerFactory.destroy();
+    }
+
+    @Test
+    void relay_shouldPublishTheEventsKeyedByTaskId_andDeleteThem(EmbeddedKafkaBroker broker) {
+        //Given
+        var events = List.of(event(1L, 10, CREATED), event(2L, 11, CREATED), event(3L, 10, DELETED));
+        when(outboxEventRepository.findOldestUnclaimed(any(LocalDateTime.class), any(Limit.class))).thenReturn(events).thenReturn(List.of());
+        var relay = relay(kafkaTemplate, 3);
+
+        //When
+        relay.relay();
+
+        //Then: a full batch is followed by another round, which finds the outbox empty
+        var consumerProperties = KafkaTestUtils.consumerProps("outbox-relay-test", "false", broker);
+        consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (var consumer = new DefaultKafkaConsumerFactory<>(consumerProperties, new StringDeserializer(), new StringDeserializer())
+                .createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            var records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 3);
+            assertThat(records).extracting(
+                            record -> record.key(),
+                            record -> record.value(),
+                            record -> new String(record.headers().lastHeader(OutboxRelay.EVENT_ID_HEADER).value()))
+                    .containsExactly(
+                            tuple("10", "{\"id\":1}", "1"),
+                            tuple("11", "{\"id\":2}", "2"),
+                            tuple("10", "{\"id\":3}", "3"));
+        }
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.counter("task.outbox.published").count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_shouldKeepTheEvents_whenKafkaDoesNotAcknowledgeThem() {
+        //Given
+        KafkaTemplate<String, String> failingTemplate = mock(KafkaTemplate.class);
+        when(failingTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(outboxEventRepository.findOldestUnclaimed(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(event(1L, 10, CREATED)));
+
+        //When
+        relay(failingTemplate, 10).relay();
+
+        //Then
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository).claim(List.of(1L), null);
+        assertThat(meterRegistry.counter("task.outbox.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_shouldWaitForTheAcknowledgements_outsideOfAnyTransaction() {
+        //Given
+        var transactionManager = mock(PlatformTransactionManager.class);
+        KafkaTemplate<String, String> template = mock(KafkaTemplate.class);
+        when(template.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxEventRepository.findOldestUnclaimed(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(event(1L, 10, CREATED)));
+
+        //When
+        relay(template, transactionManager, 10).relay();
+
+        //Then: claimed and committed, sent, then deleted in a transaction of its own
+        var inOrder = inOrder(transactionManager, outboxEventRepository, template);
+        inOrder.verify(outboxEventRepository).claim(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(template).send(any(ProducerRecord.class));
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    private OutboxRelay relay(KafkaTemplate<String, String> template, int batchSize) {
+        return relay(template, mock(PlatformTransactionManager.class), batchSize);
+    }
+
+    private OutboxRelay relay(KafkaTemplate<String, String> template, PlatformTransactionManager transactionManager,
+                              int batchSize) {
+        return new OutboxRelay(outboxEventRepository, transactionManager, template, meterRegistry,
+                TOPIC, batchSize, Duration.ofSeconds(10));
+    }
+
+    private static OutboxEvent event(Long id, Integer taskId, TaskChangedEvent.Type type) {
+        return OutboxEvent.builder()
+                .id(id)
+                .taskId(taskId)
+                .type(type)
+                .payload("{\"id\":" + id + "}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskCursor;
+import ch.sintere.task.dto.TaskDueDate;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.event.TasksBecameOverdueEvent;
+import ch.sintere.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static ch.sintere.task.dto.TaskSort.DUE_DATE;
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class OverdueTrackerTest {
+
+    private final LocalDate today = LocalDate.now();
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OverdueTracker overdueTracker;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        overdueTracker = new OverdueTracker(taskRepository, transactionManager, eventPublisher, 2);
+    }
+
+    @Test
+    void findOverdue_shouldReturnTasksDueBeforeToday_oldestFirst_pageByPage() {
+        //Given
+        when(taskRepository.streamNotDoneDueDates()).thenReturn(Stream.of(
+                new TaskDueDate(5, today.minusDays(1)),
+                new TaskDueDate(2, today.minusDays(3)),
+                new TaskDueDate(9, today.minusDays(3)),
+                new TaskDueDate(1, today)));
+        overdueTracker.afterSingletonsInstantiated();
+
+        //When
+        var firstPage = overdueTracker.findOverdue(null, 2);
+        var secondPage = overdueTracker.findOverdue(new TaskCursor(DUE_DATE, today.minusDays(3), 9), 2);
+
+        //Then
+        assertThat(firstPage).containsExactly(new TaskDueDate(2, today.minusDays(3)), new TaskDueDate(9, today.minusDays(3)));
+        assertThat(secondPage).containsExactly(new TaskDueDate(5, today.minusDays(1)));
+    }
+
+    @Test
+    void track_shouldMoveOrDropTheTask_whenItsDueDateOrStatusChanges() {
+        //Given
+        var task = task(4, OPEN, today.minusDays(2));
+        overdueTracker.track(task);
+
+        //When
+        task.setDueDate(today.plusDays(1));
+        overdueTracker.track(task);
+        var rescheduled = overdueTracker.findOverdue(null, 10);
+        task.setDueDate(today.minusDays(1));
+        overdueTracker.track(task);
+        var overdueAgain = overdueTracker.findOverdue(null, 10);
+        task.setStatus(DONE);
+        overdueTracker.track(task);
+
+        //Then
+        assertThat(rescheduled).isEmpty();
+        assertThat(overdueAgain).containsExactly(new TaskDueDate(4, today.minusDays(1)));
+        assertThat(overdueTracker.findOverdue(null, 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldPickUpWritesItWasNotTold_andKeepThoseCommittedWhileItReads() {
+        //Given: task 1 was marked DONE elsewhere, and task 8 is re-dated here while the table is read
+        overdueTracker.track(task(1, OPEN, today.minusDays(2)));
+        when(taskRepository.streamNotDoneDueDates()).thenAnswer(invocation -> {
+            overdueTracker.track(task(8, OPEN, today.minusDays(4)));
+            return Stream.of(new TaskDueDate(3, today.minusDays(1)), new TaskDueDate(8, today.minusDays(1)));
+        });
+
+        //When
+        overdueTracker.rebuild();
+
+        //Then
+        assertThat(overdueTracker.findOverdue(null, 10))
+                .containsExactly(new TaskDueDate(8, today.minusDays(4)), new TaskDueDate(3, today.minusDays(1)));
+    }
+
+    @Test
+    void tick_shouldNotAnnounceAnything_onTheDayTheTrackerStarted() {
+        //Given
+        overdueTracker.track(task(1, OPEN, today.minusDays(1)));
+
+        //When
+        overdueTracker.tick();
+
+        //Then
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void tick_shouldAnnounceTheTasksThatBecameOverdue_inBatches() {
+        //Given
+        overdueTracker.track(task(1, OPEN, today));
+        overdueTracker.track(task(2, OPEN, today));
+        overdueTracker.track(task(3, OPEN, today));
+        overdueTracker.track(task(4, OPEN, today.plusDays(1)));
+
+        //When
+        overdueTracker.tick(today.plusDays(1));
+        overdueTracker.tick(today.plusDays(1));
+
+        //Then
+        var events = ArgumentCaptor.forClass(TasksBecameOverdueEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).containsExactly(
+                new TasksBecameOverdueEvent(today, List.of(1, 2)),
+                new TasksBecameOverdueEvent(today, List.of(3)));
+    }
+
+    private static Task task(Integer id, Status status, LocalDate dueDate) {
+        return Task.builder().id(id).title("Task " + id).status(status).priority(HIGH).dueDate(dueDate).build();
+    }
+}
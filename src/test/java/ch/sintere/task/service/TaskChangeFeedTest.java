@@ -0,0 +1,93 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Priority.LOW;
+import static ch.sintere.task.entities.Status.DONE;
+import static ch.sintere.task.entities.Status.OPEN;
+import static ch.sintere.task.event.TaskChangedEvent.Type.CREATED;
+import static ch.sintere.task.event.TaskChangedEvent.Type.STATUS_CHANGED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TaskChangeFeedTest {
+
+    private final TaskChangeFeed taskChangeFeed = new TaskChangeFeed(3);
+
+    @Test
+    void read_shouldReturnTheEventsFollowingThePosition() throws InterruptedException {
+        //Given
+        taskChangeFeed.taskChanged(CREATED, null, task(OPEN, LOW), "{\"n\":1}");
+        taskChangeFeed.taskChanged(CREATED, null, task(OPEN, LOW), "{\"n\":2}");
+
+        //When
+        var batch = taskChangeFeed.read(1, 10, Duration.ZERO);
+
+        //Then
+        assertThat(batch.missed()).isFalse();
+        assertThat(batch.entries()).extracting(TaskChangeFeed.Entry::sequence, TaskChangeFeed.Entry::json)
+                .containsExactly(tuple(2L, "{\"n\":2}"));
+    }
+
+    @Test
+    void read_shouldTellTheReaderItMissedEvents_whenTheyWereOverwritten() throws InterruptedException {
+        //Given: five events in a ring of three
+        for (var i = 0; i < 5; i++) {
+            taskChangeFeed.taskChanged(CREATED, null, task(OPEN, LOW), "{}");
+        }
+
+        //When
+        var batch = taskChangeFeed.read(0, 10, Duration.ZERO);
+
+        //Then
+        assertThat(batch.missed()).isTrue();
+        assertThat(batch.entries()).extracting(TaskChangeFeed.Entry::sequence).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void filter_shouldMatchTheTaskBeforeOrAfterTheChange() throws InterruptedException {
+        //Given
+        taskChangeFeed.taskChanged(STATUS_CHANGED, task(OPEN, HIGH), task(DONE, HIGH), "{}");
+        var entry = taskChangeFeed.read(0, 1, Duration.ZERO).entries().getFirst();
+
+        //When / Then
+        assertThat(new TaskChangeFeed.Filter(OPEN, HIGH).matches(entry)).isTrue();
+        assertThat(new TaskChangeFeed.Filter(DONE, null).matches(entry)).isTrue();
+        assertThat(new TaskChangeFeed.Filter(OPEN, LOW).matches(entry)).isFalse();
+    }
+
+    @Test
+    void sequenceOf_shouldOnlyAcceptEventIdsItHandedOut() {
+        //Given
+        taskChangeFeed.taskChanged(CREATED, null, task(OPEN, LOW), "{}");
+
+        //When / Then
+        assertThat(taskChangeFeed.sequenceOf(taskChangeFeed.eventId(1))).hasValue(1);
+        assertThat(taskChangeFeed.sequenceOf(taskChangeFeed.eventId(2))).isEmpty();
+        assertThat(taskChangeFeed.sequenceOf("0-1")).isEmpty();
+        assertThat(taskChangeFeed.sequenceOf("garbage")).isEmpty();
+    }
+
+    @Test
+    void sequenceOf_shouldRejectAnEventId_whoseFollowingEventsWereOverwritten() throws InterruptedException {
+        //Given: five events in a ring of three, which holds 3 to 5
+        for (var i = 0; i < 5; i++) {
+            taskChangeFeed.taskChanged(CREATED, null, task(OPEN, LOW), "{}");
+        }
+
+        //When / Then: resuming after 2 misses nothing, after 1 it would miss event 2
+        assertThat(taskChangeFeed.sequenceOf(taskChangeFeed.eventId(2))).hasValue(2);
+        assertThat(taskChangeFeed.read(2, 10, Duration.ZERO).missed()).isFalse();
+        assertThat(taskChangeFeed.sequenceOf(taskChangeFeed.eventId(1))).isEmpty();
+    }
+
+    private static TaskDto task(Status status, Priority priority) {
+        return new TaskDto("Task", status, priority, null, null, null, null, 1L);
+    }
+}
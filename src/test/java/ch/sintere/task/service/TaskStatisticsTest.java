@@ -0,0 +1,118 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskCount;
+import ch.sintere.task.entities.Priority;
+import ch.sintere.task.entities.Status;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static ch.sintere.task.entities.Priority.*;
+import static ch.sintere.task.entities.Status.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TaskStatisticsTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        taskStatistics = new TaskStatistics(taskRepository);
+    }
+
+    @Test
+    void snapshot_shouldReturnReconciledCounts() {
+        //Given
+        when(taskRepository.countByStatusAndPriority(any(LocalDate.class))).thenReturn(List.of(
+                new TaskCount(OPEN, HIGH, 5L, 2L),
+                new TaskCount(DONE, LOW, 3L, 0L)));
+
+        //When
+        taskStatistics.reconcile();
+        var stats = taskStatistics.snapshot();
+
+        //Then
+        assertThat(stats.total()).isEqualTo(8);
+        assertThat(stats.overdueTotal()).isEqualTo(2);
+        assertThat(stats.counts().get(OPEN).get(HIGH)).isEqualTo(5);
+        assertThat(stats.overdue().get(OPEN).get(HIGH)).isEqualTo(2);
+        assertThat(stats.counts().get(PENDING).get(MEDIUM)).isZero();
+        assertThat(stats.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    void snapshot_shouldApplyWritesOnTopOfTheReconciledCounts() {
+        //Given
+        when(taskRepository.countByStatusAndPriority(any(LocalDate.class)))
+                .thenReturn(List.of(new TaskCount(OPEN, HIGH, 5L, 2L)));
+        taskStatistics.reconcile();
+        var overdueTask = task(OPEN, HIGH, LocalDate.now().minusDays(1));
+
+        //When
+        taskStatistics.taskCreated(task(OPEN, LOW, null));
+        var before = taskStatistics.slotOf(overdueTask);
+        overdueTask.setStatus(DONE);
+        taskStatistics.taskChanged(before, overdueTask);
+        var stats = taskStatistics.snapshot();
+
+        //Then
+        assertThat(stats.total()).isEqualTo(6);
+        assertThat(stats.counts().get(OPEN).get(HIGH)).isEqualTo(4);
+        assertThat(stats.counts().get(OPEN).get(LOW)).isEqualTo(1);
+        assertThat(stats.counts().get(DONE).get(HIGH)).isEqualTo(1);
+        assertThat(stats.overdue().get(OPEN).get(HIGH)).isEqualTo(1);
+        assertThat(stats.overdueTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_shouldKeepWritesMadeBeforeIt_andReplaceTheDrift() {
+        //Given
+        taskStatistics.taskCreated(task(OPEN, HIGH, null));
+        taskStatistics.taskCreated(task(OPEN, HIGH, null));
+        when(taskRepository.countByStatusAndPriority(any(LocalDate.class)))
+                .thenReturn(List.of(new TaskCount(OPEN, HIGH, 7L, 0L)));
+
+        //When
+        taskStatistics.reconcile();
+        taskStatistics.taskDeleted(task(OPEN, HIGH, null));
+
+        //Then
+        assertThat(taskStatistics.snapshot().counts().get(OPEN).get(HIGH)).isEqualTo(6);
+    }
+
+    @Test
+    void priorityChanged_shouldMoveEveryStatus() {
+        //Given
+        when(taskRepository.countByStatusAndPriority(any(LocalDate.class))).thenReturn(List.of(
+                new TaskCount(OPEN, HIGH, 5L, 2L),
+                new TaskCount(DONE, HIGH, 3L, 0L),
+                new TaskCount(OPEN, LOW, 1L, 0L)));
+        taskStatistics.reconcile();
+
+        //When
+        taskStatistics.priorityChanged(HIGH, LOW);
+        var stats = taskStatistics.snapshot();
+
+        //Then
+        assertThat(stats.counts().get(OPEN)).containsEntry(HIGH, 0L).containsEntry(LOW, 6L);
+        assertThat(stats.counts().get(DONE)).containsEntry(HIGH, 0L).containsEntry(LOW, 3L);
+        assertThat(stats.overdue().get(OPEN)).containsEntry(HIGH, 0L).containsEntry(LOW, 2L);
+        assertThat(stats.total()).isEqualTo(9);
+    }
+
+    private static Task task(Status status, Priority priority, LocalDate dueDate) {
+        return Task.builder().title("Title").status(status).priority(priority).dueDate(dueDate).build();
+    }
+}
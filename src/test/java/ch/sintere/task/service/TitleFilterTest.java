@@ -0,0 +1,97 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskTitle;
+import ch.sintere.task.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TitleFilterTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TitleFilter titleFilter;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        titleFilter = new TitleFilter(taskRepository, transactionManager, meterRegistry, 1_000, 0.01);
+    }
+
+    @Test
+    void mightContain_shouldLetEveryTitleThrough_untilTheFilterIsBuilt() {
+        assertThat(titleFilter.mightContain("Anything")).isTrue();
+    }
+
+    @Test
+    void mightContain_shouldNeverMissAnExistingTitle_andRuleOutMostNewOnes() {
+        //Given
+        when(taskRepository.streamTitles()).thenReturn(IntStream.range(0, 1_000).mapToObj(i -> new TaskTitle(i, "Task " + i)));
+        titleFilter.afterSingletonsInstantiated();
+
+        //When
+        var missed = IntStream.range(0, 1_000).filter(i -> !titleFilter.mightContain("Task " + i)).count();
+        var falsePositives = IntStream.range(1_000, 11_000).filter(i -> titleFilter.mightContain("Task " + i)).count();
+
+        //Then
+        assertThat(missed).isZero();
+        assertThat(falsePositives).isLessThan(300);
+        assertThat(meterRegistry.get("task.title-filter.memory").gauge().value()).isEqualTo(9_586);
+        assertThat(meterRegistry.get("task.title-filter.expected-fpp").gauge().value()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void titleRemoved_shouldForgetTheTitle_andTitleAddedDuringARebuildShouldSurviveIt() {
+        //Given
+        when(taskRepository.streamTitles()).thenReturn(Stream.of(new TaskTitle(1, "Old Title")));
+        titleFilter.afterSingletonsInstantiated();
+
+        //When
+        titleFilter.titleRemoved("Old Title");
+        titleFilter.titleAdded("New Title");
+        // The rebuild reads the table before "Late Title" commits
+        when(taskRepository.streamTitles()).thenAnswer(invocation -> {
+            titleFilter.titleAdded("Late Title");
+            return Stream.of(new TaskTitle(2, "New Title"));
+        });
+        titleFilter.rebuild();
+
+        //Then
+        assertThat(titleFilter.mightContain("Old Title")).isFalse();
+        assertThat(titleFilter.mightContain("New Title")).isTrue();
+        assertThat(titleFilter.mightContain("Late Title")).isTrue();
+    }
+
+    @Test
+    void recordCheck_shouldCountFalsePositivesApartFromTitlesFound() {
+        //Given
+        when(taskRepository.streamTitles()).thenReturn(Stream.empty());
+        titleFilter.afterSingletonsInstantiated();
+
+        //When
+        titleFilter.mightContain("New");
+        titleFilter.recordCheck(3, 1);
+
+        //Then
+        assertThat(checks("absent")).isEqualTo(1);
+        assertThat(checks("false_positive")).isEqualTo(2);
+        assertThat(checks("present")).isEqualTo(1);
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("task.title-filter.checks").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package ch.sintere.task.service;
+
+import ch.sintere.task.dto.TaskTitle;
+import ch.sintere.task.entities.Task;
+import ch.sintere.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.orm.jpa.vendor.Database;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static ch.sintere.task.entities.Priority.LOW;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TitleIndexTest {
+
+    private static final TitleIndex.Key START = new TitleIndex.Key("", 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TitleIndex titleIndex;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        var jpaProperties = new JpaProperties();
+        jpaProperties.setDatabase(Database.H2);
+        titleIndex = new TitleIndex(taskRepository, transactionManager, jpaProperties, true);
+        when(taskRepository.streamTitles()).thenReturn(Stream.of(
+                new TaskTitle(1, "Write report"),
+                new TaskTitle(2, "Report"),
+                new TaskTitle(3, "report draft"),
+                new TaskTitle(4, "Review")));
+        titleIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void findStartingWith_shouldMatchCaseInsensitively_inTitleThenIdOrder_pageByPage() {
+        //When
+        var firstPage = titleIndex.findStartingWith("rep", START, 1);
+        var secondPage = titleIndex.findStartingWith("rep", firstPage.getLast(), 10);
+
+        //Then
+        assertThat(firstPage).containsExactly(new TitleIndex.Key("report", 2));
+        assertThat(secondPage).containsExactly(new TitleIndex.Key("report draft", 3));
+    }
+
+    @Test
+    void findContaining_shouldSkipTitlesStartingWithThePart() {
+        //When
+        var matches = titleIndex.findContaining("report", START, 10);
+
+        //Then
+        assertThat(matches).containsExactly(new TitleIndex.Key("write report", 1));
+    }
+
+    @Test
+    void track_shouldReindexRenamedTasks_andUntrackShouldDropThem() {
+        //Given
+        var renamed = Task.builder().id(4).title("Report review").status(OPEN).priority(LOW).build();
+
+        //When
+        titleIndex.track(renamed);
+        titleIndex.untrack(3);
+
+        //Then
+        assertThat(titleIndex.findStartingWith("re", START, 10)).containsExactly(
+                new TitleIndex.Key("report", 2),
+                new TitleIndex.Key("report review", 4));
+    }
+
+    @Test
+    void rebuild_shouldPickUpTitlesItWasNotTold_andKeepThoseCommittedWhileItReads() {
+        //Given: task 3 was renamed elsewhere, and task 5 is created here while the table is read
+        when(taskRepository.streamTitles()).thenAnswer(invocation -> {
+            titleIndex.track(Task.builder().id(5).title("Repair").status(OPEN).priority(LOW).build());
+            return Stream.of(new TaskTitle(2, "Report"), new TaskTitle(3, "Draft report"));
+        });
+
+        //When
+        titleIndex.rebuild();
+
+        //Then
+        assertThat(titleIndex.findStartingWith("re", START, 10)).containsExactly(
+                new TitleIndex.Key("repair", 5),
+                new TitleIndex.Key("report", 2));
+    }
+
+    @Test
+    void servesSearches_onlyWithoutThePostgresTitleIndexes() {
+        //Given
+        var jpaProperties = new JpaProperties();
+        jpaProperties.setDatabase(Database.POSTGRESQL);
+
+        //When
+        var onPostgres = new TitleIndex(taskRepository, transactionManager, jpaProperties, true);
+
+        //Then
+        assertThat(onPostgres.servesSearches()).isFalse();
+        assertThat(titleIndex.servesSearches()).isTrue();
+    }
+}
@@ -0,0 +1,196 @@
+package ch.sintere.task.service.impl;
+
+import ch.sintere.task.config.CacheConfig;
+import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskRow;
+import ch.sintere.task.mapper.TaskMapper;
+import ch.sintere.task.repository.TaskRepository;
+import ch.sintere.task.service.IdempotencyStore;
+import ch.sintere.task.service.OverdueTracker;
+import ch.sintere.task.service.TaskMetrics;
+import ch.sintere.task.service.TaskOutbox;
+import ch.sintere.task.service.TaskService;
+import ch.sintere.task.service.TaskStatistics;
+import ch.sintere.task.service.TaskVersions;
+import ch.sintere.task.service.TitleFilter;
+import ch.sintere.task.service.TitleIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static ch.sintere.task.config.CacheConfig.TASKS_BY_ID;
+import static ch.sintere.task.entities.Priority.HIGH;
+import static ch.sintere.task.entities.Priority.LOW;
+import static ch.sintere.task.entities.Status.IN_PROGRESS;
+import static ch.sintere.task.entities.Status.OPEN;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The {@link CacheConfig#TASKS_BY_ID} cache around the real {@link TaskServiceImpl}, in transactions that commit or
+ * roll back without a database.
+ */
+@SpringJUnitConfig
+@TestPropertySource(properties = "task.cache.tasks-by-id=maximumSize=100")
+class TaskCachingTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({CacheConfig.class, TaskServiceImpl.class})
+    static class Config {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+    @MockitoBean
+    private TaskMapper taskMapper;
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+    @MockitoBean
+    private TaskMetrics taskMetrics;
+    @MockitoBean
+    private TaskStatistics taskStatistics;
+    @MockitoBean
+    private OverdueTracker overdueTracker;
+    @MockitoBean
+    private TitleIndex titleIndex;
+    @MockitoBean
+    private TitleFilter titleFilter;
+    @MockitoBean
+    private TaskVersions taskVersions;
+    @MockitoBean
+    private TaskOutbox taskOutbox;
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(TASKS_BY_ID).clear();
+        when(taskRepository.findDtoById(anyInt())).thenAnswer(invocation -> Optional.of(row(invocation.getArgument(0)).toDto()));
+        when(taskRepository.findRowById(anyInt())).thenAnswer(invocation -> Optional.of(row(invocation.getArgument(0))));
+        when(taskRepository.updateIfVersionMatches(anyInt(), anyLong(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(taskRepository.updateStatusIfVersionMatches(anyInt(), anyLong(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void findTaskById_shouldBeAnsweredFromTheCache_afterTheFirstRead() {
+        //When
+        taskService.findTaskById(1);
+        taskService.findTaskById(1);
+
+        //Then
+        verify(taskRepository, times(1)).findDtoById(1);
+    }
+
+    @Test
+    void updates_shouldEvictTheTask_onceTheyCommit() {
+        //Given
+        taskService.findTaskById(1);
+        taskService.findTaskById(2);
+
+        //When
+        taskService.updateTask(new TaskDto("Task 1", OPEN, LOW, null, null, null, null, null), 1, null);
+        taskService.updateStatus(2, new TaskDto("Task 2", IN_PROGRESS, HIGH, CREATED_AT, null, null, "SYSTEM", null), null);
+        taskService.findTaskById(1);
+        taskService.findTaskById(2);
+
+        //Then
+        verify(taskRepository, times(2)).findDtoById(1);
+        verify(taskRepository, times(2)).findDtoById(2);
+    }
+
+    @Test
+    void updatePriorityForAll_shouldEvictEveryTask() {
+        //Given
+        taskService.findTaskById(1);
+        taskService.findTaskById(2);
+
+        //When
+        taskService.updatePriorityForAll(HIGH, LOW);
+        taskService.findTaskById(1);
+        taskService.findTaskById(2);
+
+        //Then
+        verify(taskRepository, times(2)).findDtoById(1);
+        verify(taskRepository, times(2)).findDtoById(2);
+    }
+
+    @Test
+    void updateTask_shouldLeaveTheCachedTask_whenTheTransactionRollsBack() {
+        //Given
+        taskService.findTaskById(1);
+
+        //When
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.updateTask(new TaskDto("Task 1", OPEN, LOW, null, null, null, null, null), 1, null);
+            status.setRollbackOnly();
+        });
+        taskService.findTaskById(1);
+
+        //Then
+        verify(taskRepository, times(1)).findDtoById(eq(1));
+    }
+
+    private static TaskRow row(Integer id) {
+        return new TaskRow(id, "Task " + id, OPEN, HIGH, CREATED_AT, null, null, "SYSTEM", 0L);
+    }
+
+    // Runs the transaction synchronizations (and so the deferred evictions) without any resource behind them
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
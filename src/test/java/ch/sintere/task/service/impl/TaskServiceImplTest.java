@@ -1,25 +1,56 @@
 package ch.sintere.task.service.impl;
 
+import ch.sintere.task.config.PrimaryReads;
+import ch.sintere.task.dto.TaskBatchResult;
+import ch.sintere.task.dto.TaskCursor;
 import ch.sintere.task.dto.TaskDto;
+import ch.sintere.task.dto.TaskDueDate;
+import ch.sintere.task.dto.TaskRow;
+import ch.sintere.task.dto.TaskSort;
 import ch.sintere.task.dto.TaskStatus;
+import ch.sintere.task.dto.TitleSearchCursor;
 import ch.sintere.task.entities.Priority;
 import ch.sintere.task.entities.Status;
 import ch.sintere.task.entities.Task;
+import ch.sintere.task.event.TaskChangedEvent;
+import ch.sintere.task.exception.IdempotencyKeyReusedException;
+import ch.sintere.task.exception.InvalidCursorException;
+import ch.sintere.task.exception.TaskAlreadyExistException;
 import ch.sintere.task.exception.TaskDueDateInvalidException;
 import ch.sintere.task.exception.TaskNotFoundException;
+import ch.sintere.task.exception.TaskVersionMismatchException;
 import ch.sintere.task.mapper.TaskMapperImpl;
 import ch.sintere.task.repository.TaskRepository;
+import ch.sintere.task.service.IdempotencyStore;
+import ch.sintere.task.service.OverdueTracker;
+import ch.sintere.task.service.TaskMetrics;
+import ch.sintere.task.service.TaskOutbox;
+import ch.sintere.task.service.TaskStatistics;
+import ch.sintere.task.service.TaskVersions;
+import ch.sintere.task.service.TitleFilter;
+import ch.sintere.task.service.TitleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static ch.sintere.task.config.CacheConfig.TASKS_BY_ID;
 import static ch.sintere.task.entities.Priority.*;
 import static ch.sintere.task.entities.Status.*;
 import static java.lang.String.format;
@@ -34,12 +65,34 @@ class TaskServiceImplTest {
     private TaskRepository taskRepository;
     @Mock
     private TaskMapperImpl taskMapper;
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(Duration.ofMinutes(5), 100);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private TaskMetrics taskMetrics = new TaskMetrics(meterRegistry);
+    @Mock
+    private TaskStatistics taskStatistics;
+    @Mock
+    private OverdueTracker overdueTracker;
+    @Mock
+    private TitleIndex titleIndex;
+    @Mock
+    private TitleFilter titleFilter;
+    @Mock
+    private TaskVersions taskVersions;
+    @Mock
+    private TaskOutbox taskOutbox;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(TASKS_BY_ID);
     @InjectMocks
     private TaskServiceImpl taskService;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
+        when(titleFilter.mightContain(any())).thenReturn(true);
     }
 
     @Nested
@@ -48,7 +101,7 @@ class TaskServiceImplTest {
         @Test
         void addTask_shouldInsertTask_whenValidDataGiven() {
             //Given
-            var expectedTaskDto = new TaskDto("Test Title", Status.OPEN, Priority.HIGH, null, null, LocalDate.now(), "SYSTEM");
+            var expectedTaskDto = new TaskDto("Test Title", Status.OPEN, Priority.HIGH, null, null, LocalDate.now(), "SYSTEM", null);
 
             var savedTask = Task.builder()
                     .id(1)
@@ -58,7 +111,7 @@ class TaskServiceImplTest {
                     .createdAt(LocalDateTime.now())
                     .build();
 
-            when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
+            when(taskRepository.insertIfTitleAbsent(any(Task.class))).thenReturn(Optional.of(savedTask));
             when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
 
             //When
@@ -72,13 +125,207 @@ class TaskServiceImplTest {
             );
 
             //Verify
-            verify(taskRepository).save(any(Task.class));
+            verify(taskRepository).insertIfTitleAbsent(any(Task.class));
+            verify(taskRepository, never()).findByTitle(any());
+            verify(taskOutbox).taskChanged(TaskChangedEvent.Type.CREATED, 1, null, expectedTaskDto);
+        }
+
+        @Test
+        void addTask_shouldThrowTaskAlreadyExistException_whenTitleIsTaken() {
+            //Given
+            var taskDto = createTaskDto("Taken", OPEN, HIGH, null, null);
+            when(taskRepository.insertIfTitleAbsent(any(Task.class))).thenReturn(Optional.empty());
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.addTask(taskDto))
+                    .isInstanceOf(TaskAlreadyExistException.class)
+                    .hasMessage("Task already exists by the provided title:: Taken");
+            assertThat(outcomeCount("already_exists")).isEqualTo(1);
+        }
+
+        @Test
+        void addTask_shouldReturnFirstResult_whenRetriedWithSameIdempotencyKey() {
+            //Given
+            var taskDto = createTaskDto("Title", OPEN, HIGH, null, null);
+            var savedTask = Task.builder().id(1).title("Title").status(OPEN).priority(HIGH).build();
+
+            when(taskRepository.insertIfTitleAbsent(any(Task.class)))
+                    .thenReturn(Optional.of(savedTask))
+                    .thenReturn(Optional.empty());
+            when(taskMapper.toDto(savedTask)).thenReturn(taskDto);
+
+            //When
+            var first = taskService.addTask(taskDto, "key-1");
+            var retry = taskService.addTask(taskDto, "key-1");
+
+            //Then
+            assertThat(retry).isSameAs(first);
+
+            //Verify
+            verify(taskRepository, times(1)).insertIfTitleAbsent(any(Task.class));
+        }
+
+        @Test
+        void addTask_shouldRejectIdempotencyKey_whenReusedForAnotherTitle() {
+            //Given
+            var taskDto = createTaskDto("Title", OPEN, HIGH, null, null);
+            var savedTask = Task.builder().id(1).title("Title").status(OPEN).priority(HIGH).build();
+
+            when(taskRepository.insertIfTitleAbsent(any(Task.class))).thenReturn(Optional.of(savedTask));
+            when(taskMapper.toDto(savedTask)).thenReturn(taskDto);
+            taskService.addTask(taskDto, "key-1");
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.addTask(createTaskDto("Other", OPEN, HIGH, null, null), "key-1"))
+                    .isInstanceOf(IdempotencyKeyReusedException.class);
+        }
+
+        @Test
+        void addTask_shouldRejectIdempotencyKey_whenReusedWithTheSameTitleButAnotherPriority() {
+            //Given
+            var taskDto = createTaskDto("Title", OPEN, HIGH, null, null);
+            var savedTask = Task.builder().id(1).title("Title").status(OPEN).priority(HIGH).build();
+
+            when(taskRepository.insertIfTitleAbsent(any(Task.class))).thenReturn(Optional.of(savedTask));
+            when(taskMapper.toDto(savedTask)).thenReturn(taskDto);
+            taskService.addTask(taskDto, "key-1");
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.addTask(createTaskDto("Title", OPEN, LOW, null, null), "key-1"))
+                    .isInstanceOf(IdempotencyKeyReusedException.class);
+        }
+
+        @Test
+        void addTasks_shouldReportConflicts_whenTitlesAlreadyExistOrRepeat() {
+            //Given
+            var taskDtos = List.of(
+                    createTaskDto("New 1", OPEN, HIGH, null, null),
+                    createTaskDto("Taken", OPEN, HIGH, null, null),
+                    createTaskDto("New 2", OPEN, LOW, null, null),
+                    createTaskDto("New 1", OPEN, LOW, null, null)
+            );
+
+            when(taskRepository.findExistingTitles(List.of("New 1", "Taken", "New 2"))).thenReturn(List.of("Taken"));
+            when(taskRepository.insertAllIfTitleAbsent(anyList())).thenAnswer(invocation -> insertedAll(invocation.getArgument(0)));
+            when(taskMapper.toDto(any(Task.class)))
+                    .thenAnswer(invocation -> createTaskDto(invocation.<Task>getArgument(0).getTitle(), OPEN, HIGH, null, null));
+
+            //When
+            var results = taskService.addTasks(taskDtos);
+
+            //Then
+            assertAll(
+                    () -> assertThat(results)
+                            .extracting(TaskBatchResult::index, TaskBatchResult::title, TaskBatchResult::outcome)
+                            .containsExactly(
+                                    tuple(0, "New 1", TaskBatchResult.Outcome.CREATED),
+                                    tuple(1, "Taken", TaskBatchResult.Outcome.CONFLICT),
+                                    tuple(2, "New 2", TaskBatchResult.Outcome.CREATED),
+                                    tuple(3, "New 1", TaskBatchResult.Outcome.CONFLICT)),
+                    () -> assertThat(results.get(2).task().title()).isEqualTo("New 2")
+            );
+
+            //Verify
+            verify(taskRepository, never()).findByTitle(any());
+            verify(taskRepository).insertAllIfTitleAbsent(argThat(tasks -> tasks.size() == 2));
+        }
+
+        @Test
+        void addTasks_shouldOnlyRejectItsOwnRow_whenATitleIsInsertedConcurrently() {
+            //Given: "Raced" is free at lookup time but taken by the time the batch inserts it
+            var taskDtos = List.of(createTaskDto("Raced", OPEN, HIGH, null, null), createTaskDto("Free", OPEN, LOW, null, null));
+            when(taskRepository.findExistingTitles(List.of("Raced", "Free"))).thenReturn(List.of());
+            when(taskRepository.insertAllIfTitleAbsent(anyList())).thenAnswer(invocation -> {
+                List<Task> tasks = invocation.getArgument(0);
+                return List.of(Optional.empty(), Optional.of(tasks.get(1)));
+            });
+            when(taskMapper.toDto(any(Task.class)))
+                    .thenAnswer(invocation -> createTaskDto(invocation.<Task>getArgument(0).getTitle(), OPEN, LOW, null, null));
+
+            //When
+            var results = taskService.addTasks(taskDtos);
+
+            //Then
+            assertThat(results)
+                    .extracting(TaskBatchResult::title, TaskBatchResult::outcome)
+                    .containsExactly(
+                            tuple("Raced", TaskBatchResult.Outcome.CONFLICT),
+                            tuple("Free", TaskBatchResult.Outcome.CREATED));
+            verify(taskOutbox).taskChanged(eq(TaskChangedEvent.Type.CREATED), any(), isNull(), argThat(task -> task.title().equals("Free")));
+            verify(taskOutbox, times(1)).taskChanged(any(), any(), any(), any());
+        }
+
+        @Test
+        void addTasks_shouldReportAConflict_whenTheFilterMissesATitleTakenOnAnotherInstance() {
+            //Given: the filter has not seen the title yet, so no lookup is made
+            var taskDtos = List.of(createTaskDto("Elsewhere", OPEN, HIGH, null, null));
+            when(titleFilter.mightContain("Elsewhere")).thenReturn(false);
+            when(taskRepository.insertAllIfTitleAbsent(anyList())).thenReturn(List.of(Optional.empty()));
+
+            //When
+            var results = taskService.addTasks(taskDtos);
+
+            //Then
+            assertThat(results).extracting(TaskBatchResult::outcome).containsExactly(TaskBatchResult.Outcome.CONFLICT);
+            verify(taskRepository, never()).findExistingTitles(anyList());
+            verify(titleFilter, never()).titleAdded(any());
+        }
+
+        @Test
+        void addTasks_shouldOnlyLookUpTheTitlesTheFilterCannotRuleOut() {
+            //Given
+            var taskDtos = List.of(createTaskDto("New", OPEN, HIGH, null, null), createTaskDto("Maybe", OPEN, LOW, null, null));
+            when(titleFilter.mightContain("New")).thenReturn(false);
+            when(taskRepository.findExistingTitles(List.of("Maybe"))).thenReturn(List.of());
+            when(taskRepository.insertAllIfTitleAbsent(anyList())).thenAnswer(invocation -> insertedAll(invocation.getArgument(0)));
+            when(taskMapper.toDto(any(Task.class)))
+                    .thenAnswer(invocation -> createTaskDto(invocation.<Task>getArgument(0).getTitle(), OPEN, HIGH, null, null));
+
+            //When
+            var results = taskService.addTasks(taskDtos);
+
+            //Then
+            assertThat(results).extracting(TaskBatchResult::outcome)
+                    .containsOnly(TaskBatchResult.Outcome.CREATED);
+            verify(taskRepository).findExistingTitles(List.of("Maybe"));
+            verify(titleFilter).recordCheck(1, 0);
         }
     }
 
     @Nested
     class UpdateTask {
 
+        @Test
+        void updateTask_shouldThrowTaskAlreadyExistException_whenRenamedToATakenTitle() {
+            //Given
+            var existingTask = Task.builder().id(1).title("Old Title").status(OPEN).priority(LOW).build();
+            when(taskRepository.findRowById(1)).thenReturn(Optional.of(rowOf(existingTask)));
+            when(taskRepository.findByTitle("Taken")).thenReturn(Optional.of(Task.builder().id(2).title("Taken").build()));
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.updateTask(createTaskDto("Taken", OPEN, LOW, null, null), 1, null))
+                    .isInstanceOf(TaskAlreadyExistException.class);
+            verify(taskRepository, never()).updateIfVersionMatches(any(), any(), any(), any(), any(), any(), any());
+            verify(titleFilter).recordCheck(1, 1);
+        }
+
+        @Test
+        void updateTask_shouldSkipTheTitleLookup_whenTheFilterRulesTheNewTitleOut() {
+            //Given
+            var existingTask = Task.builder().id(1).title("Old Title").status(OPEN).priority(LOW).build();
+            when(taskRepository.findRowById(1)).thenReturn(Optional.of(rowOf(existingTask)));
+            when(titleFilter.mightContain("New Title")).thenReturn(false);
+            when(taskRepository.updateIfVersionMatches(eq(1), eq(0L), eq("New Title"), any(), any(), any(), any())).thenReturn(1);
+
+            //When
+            taskService.updateTask(createTaskDto("New Title", OPEN, LOW, null, null), 1, null);
+
+            //Then
+            verify(taskRepository, never()).findByTitle(any());
+            verify(titleFilter).titleRemoved("Old Title");
+            verify(titleFilter).titleAdded("New Title");
+        }
+
         @Test
         void updateTask_shouldModifyTask_whenValidDataGiven() {
             //Given
@@ -94,17 +341,15 @@ class TaskServiceImplTest {
 
             var expectedTaskDto = createTaskDto("New Title", DONE, MEDIUM, oldCreateDate, null);
 
-            when(taskRepository.findById(taskId))
-                    .thenReturn(Optional.of(existingTask));
-            when(taskRepository.save(any(Task.class)))
-                    .thenReturn(existingTask);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            when(taskRepository.findRowById(taskId)).thenReturn(Optional.of(rowOf(existingTask)));
+            when(taskRepository.updateIfVersionMatches(eq(taskId), eq(0L), eq("New Title"), eq(DONE), eq(MEDIUM), isNull(), any())).thenReturn(1);
 
             //When
-            var result = taskService.updateTask(expectedTaskDto, taskId);
+            var result = taskService.updateTask(expectedTaskDto, taskId, null);
 
             //Then
             assertAll(
+                    () -> assertThat(result.version()).isEqualTo(1L),
                     () -> assertThat(result.title()).isEqualTo("New Title"),
                     () -> assertThat(result.status()).isEqualTo(DONE),
                     () -> assertThat(result.priority()).isEqualTo(MEDIUM),
@@ -130,15 +375,11 @@ class TaskServiceImplTest {
 
             var expectedTaskDto = createTaskDto("New Title", DONE, MEDIUM, oldCreateDate, dueDate);
 
-            when(taskRepository.findById(taskId))
-                    .thenReturn(Optional.of(existingTask));
-            when(taskRepository.save(any(Task.class)))
-                    .thenReturn(existingTask);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            when(taskRepository.findRowById(taskId)).thenReturn(Optional.of(rowOf(existingTask)));
 
             // When & Then TaskDueDateInvalidException("Due date shall be in present or in future")
 
-            assertThatThrownBy(() -> taskService.updateTask(expectedTaskDto, taskId))
+            assertThatThrownBy(() -> taskService.updateTask(expectedTaskDto, taskId, null))
                     .isInstanceOf(TaskDueDateInvalidException.class)
                     .hasMessageContaining(format("Due date shall be in present or in future:: dueDate is %s", dueDate));
         }
@@ -159,14 +400,11 @@ class TaskServiceImplTest {
 
             var taskDto = createTaskDto(title, IN_PROGRESS, MEDIUM, createDate, null);
 
-            when(taskRepository.findById(taskId))
-                    .thenReturn(Optional.of(existingTask));
-            when(taskRepository.save(any(Task.class)))
-                    .thenReturn(existingTask);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(taskDto);
+            when(taskRepository.findRowById(taskId)).thenReturn(Optional.of(rowOf(existingTask)));
+            when(taskRepository.updateStatusIfVersionMatches(eq(taskId), eq(0L), eq(IN_PROGRESS), any())).thenReturn(1);
 
             //When
-            var updatedTask = taskService.updateStatus(taskId, taskDto);
+            var updatedTask = taskService.updateStatus(taskId, taskDto, null);
 
             //Then
             assertAll(
@@ -192,14 +430,10 @@ class TaskServiceImplTest {
 
             var taskDto = createTaskDto(newTitle, IN_PROGRESS, MEDIUM, createDate, null);
 
-            when(taskRepository.findById(taskId))
-                    .thenReturn(Optional.of(existingTask));
-            when(taskRepository.save(any(Task.class)))
-                    .thenReturn(existingTask);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(taskDto);
+            when(taskRepository.findRowById(taskId)).thenReturn(Optional.of(rowOf(existingTask)));
 
             // When & Then
-            assertThatThrownBy(() -> taskService.updateStatus(taskId, taskDto))
+            assertThatThrownBy(() -> taskService.updateStatus(taskId, taskDto, null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining(format("Task title %s is not equal to TaskDto title %s", existingTask.getTitle(), taskDto.title()));
         }
@@ -220,53 +454,143 @@ class TaskServiceImplTest {
 
             var taskDto = createTaskDto(oldTitle, DONE, LOW, createDate, null);
 
-            when(taskRepository.findById(taskId))
-                    .thenReturn(Optional.of(existingTask));
-            when(taskRepository.save(any(Task.class)))
-                    .thenReturn(existingTask);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(taskDto);
+            when(taskRepository.findRowById(taskId)).thenReturn(Optional.of(rowOf(existingTask)));
 
             // When & Then
-            assertThatThrownBy(() -> taskService.updateStatus(taskId, taskDto))
+            assertThatThrownBy(() -> taskService.updateStatus(taskId, taskDto, null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining(format("Task priority %s is not equal to TaskDto priority %s", existingTask.getPriority(), taskDto.priority()));
+            assertThat(outcomeCount("status_update_rejected")).isEqualTo(1);
+        }
+
+        @Test
+        void updateTask_shouldFailWithoutWriting_whenIfMatchVersionIsStale() {
+            //Given
+            var existingTask = Task.builder().id(1).title("Title").status(OPEN).priority(LOW).version(4L).build();
+            when(taskRepository.findRowById(1)).thenReturn(Optional.of(rowOf(existingTask)));
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.updateTask(createTaskDto("Title", DONE, LOW, null, null), 1, 3L))
+                    .isInstanceOf(TaskVersionMismatchException.class)
+                    .hasMessage("Task 1 is at version 4, not 3");
+            verify(taskRepository, never()).updateIfVersionMatches(any(), any(), any(), any(), any(), any(), any());
+            assertThat(outcomeCount("version_mismatch")).isEqualTo(1);
         }
 
         @Test
-        void updatePriorityForAll_shouldUpdatePriorityForAll_whenListOfTaskIsNotEmpty() {
+        void updateStatus_shouldFail_whenTheTaskChangesBetweenReadAndConditionalUpdate() {
+            //Given
+            var createdAt = LocalDateTime.now();
+            var task = Task.builder().id(1).title("Title").status(OPEN).priority(LOW).createdAt(createdAt).version(3L).build();
+            var changedMeanwhile = Task.builder().id(1).title("Title").status(IN_PROGRESS).priority(LOW).createdAt(createdAt).version(4L).build();
+            when(taskRepository.findRowById(1)).thenReturn(Optional.of(rowOf(task)), Optional.of(rowOf(changedMeanwhile)));
+            when(taskRepository.updateStatusIfVersionMatches(eq(1), eq(3L), eq(DONE), any())).thenReturn(0);
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.updateStatus(1, createTaskDto("Title", DONE, LOW, createdAt, null), 3L))
+                    .isInstanceOf(TaskVersionMismatchException.class)
+                    .hasMessage("Task 1 is at version 4, not 3");
+            verify(taskStatistics, never()).taskChanged(any(), any());
+        }
+
+        @Test
+        void updateStatus_shouldRetryOnTheNewVersion_whenTheTaskChangesAndNoIfMatchWasGiven() {
+            //Given
+            var createdAt = LocalDateTime.now();
+            var task = Task.builder().id(1).title("Title").status(OPEN).priority(LOW).createdAt(createdAt).version(3L).build();
+            var changedMeanwhile = Task.builder().id(1).title("Title").status(IN_PROGRESS).priority(LOW).createdAt(createdAt).version(4L).build();
+            when(taskRepository.findRowById(1)).thenReturn(Optional.of(rowOf(task)), Optional.of(rowOf(changedMeanwhile)));
+            when(taskRepository.updateStatusIfVersionMatches(eq(1), eq(3L), eq(DONE), any())).thenReturn(0);
+            when(taskRepository.updateStatusIfVersionMatches(eq(1), eq(4L), eq(DONE), any())).thenReturn(1);
+
+            //When
+            var updated = taskService.updateStatus(1, createTaskDto("Title", DONE, LOW, createdAt, null), null);
+
+            //Then
+            assertThat(updated.version()).isEqualTo(5L);
+            assertThat(updated.status()).isEqualTo(DONE);
+        }
+
+        @Test
+        void updatePriorityForAll_shouldUpdateInIdRangeChunks_andReturnTheAffectedCount() {
             //Given
             var oldPriority = HIGH;
             var newPriority = LOW;
-            List<Task> taskList = List.of(
-                    Task.builder().priority(oldPriority).title("Title 1").status(DONE).createdAt(LocalDateTime.now()).build(),
-                    Task.builder().priority(oldPriority).title("Title 2").status(DONE).createdAt(LocalDateTime.now()).build(),
-                    Task.builder().priority(oldPriority).title("Title 3").status(DONE).createdAt(LocalDateTime.now()).build(),
-                    Task.builder().priority(oldPriority).title("Title 3").status(DONE).createdAt(LocalDateTime.now()).build(),
-                    Task.builder().priority(MEDIUM).title("Title 5").status(DONE).createdAt(LocalDateTime.now()).build(),
-                    Task.builder().priority(MEDIUM).title("Title 5").status(DONE).createdAt(LocalDateTime.now()).build()
-                    );
-
-            TaskDto expectedTaskDto = new TaskDto(
-                    "Title 1",
-                    DONE,
-                    newPriority,
-                    LocalDateTime.now(),
-                    null,
-                    LocalDate.now(),
-                    "SYSTEM");
-
-
-            when(taskRepository.updatePriorityForAll(oldPriority, newPriority)).thenReturn(1);
-            when(taskRepository.findByPriority(newPriority)).thenReturn(taskList);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            var chunk = TaskServiceImpl.PRIORITY_UPDATE_CHUNK_SIZE;
+            when(taskRepository.findMaxId()).thenReturn(2 * chunk + 1);
+            when(taskRepository.lockRowsByPriorityInIdRange(eq(oldPriority), anyInt(), anyInt())).thenAnswer(invocation -> {
+                int fromId = invocation.getArgument(1);
+                return List.of(priorityRow(fromId + 1), priorityRow(fromId + 2), priorityRow(fromId + 3));
+            });
+            when(taskRepository.updatePriorityByIdIn(any(), eq(newPriority))).thenReturn(3);
 
             //When
-            var priorityList = taskService.updatePriorityForAll(oldPriority, newPriority);
+            var summary = taskService.updatePriorityForAll(oldPriority, newPriority);
 
             //Then
             assertAll(
-                    () -> assertThat(priorityList).isNotNull()
+                    () -> assertThat(summary.updated()).isEqualTo(9),
+                    () -> assertThat(summary.chunks()).isEqualTo(3),
+                    () -> assertThat(summary.tasks()).isNull()
             );
+            verify(taskRepository).lockRowsByPriorityInIdRange(oldPriority, 0, chunk);
+            verify(taskRepository).lockRowsByPriorityInIdRange(oldPriority, chunk, 2 * chunk);
+            verify(taskRepository).lockRowsByPriorityInIdRange(oldPriority, 2 * chunk, 3 * chunk);
+            verify(taskRepository).updatePriorityByIdIn(List.of(chunk + 1, chunk + 2, chunk + 3), newPriority);
+            verify(taskStatistics).priorityChanged(oldPriority, newPriority);
+            // One event per changed task, carrying the version the update gave it
+            verify(taskOutbox, times(9)).taskChanged(eq(TaskChangedEvent.Type.PRIORITY_CHANGED), anyInt(),
+                    argThat(before -> before.priority() == oldPriority),
+                    argThat(after -> after.priority() == newPriority && after.version() == 8L));
+        }
+
+        @Test
+        void updatePriorityForAll_shouldEvictTheCacheAndBumpTheListVersions_whenALaterChunkFails() {
+            //Given: the first chunk commits, the second fails
+            var chunk = TaskServiceImpl.PRIORITY_UPDATE_CHUNK_SIZE;
+            cacheManager.getCache(TASKS_BY_ID).put(1, createTaskDto("Task 1", OPEN, HIGH, LocalDateTime.now(), null));
+            when(taskRepository.findMaxId()).thenReturn(2 * chunk);
+            when(taskRepository.lockRowsByPriorityInIdRange(HIGH, 0, chunk)).thenReturn(List.of(priorityRow(1)));
+            when(taskRepository.lockRowsByPriorityInIdRange(HIGH, chunk, 2 * chunk))
+                    .thenThrow(new CannotAcquireLockException("lock timeout"));
+            when(taskRepository.updatePriorityByIdIn(any(), eq(LOW))).thenReturn(1);
+
+            //When
+            assertThatThrownBy(() -> taskService.updatePriorityForAll(HIGH, LOW))
+                    .isInstanceOf(CannotAcquireLockException.class);
+
+            //Then
+            assertThat(cacheManager.getCache(TASKS_BY_ID).get(1)).isNull();
+            verify(taskVersions).priorityChanged(HIGH, LOW);
+        }
+
+        @Test
+        void updatePriorityForAll_shouldNotTouchAnyTask_whenThePriorityStaysTheSame() {
+            //When
+            var summary = taskService.updatePriorityForAll(HIGH, HIGH);
+
+            //Then
+            assertThat(summary.updated()).isZero();
+            verify(taskRepository, never()).findMaxId();
+            verifyNoInteractions(taskOutbox, taskVersions, taskStatistics);
+        }
+
+        @Test
+        void updatePriorityForAll_shouldNotUpdateAnything_whenThereAreNoTasks() {
+            //Given
+            when(taskRepository.findMaxId()).thenReturn(0);
+
+            //When
+            var summary = taskService.updatePriorityForAll(HIGH, LOW);
+
+            //Then
+            assertThat(summary.updated()).isZero();
+            verify(taskRepository, never()).updatePriorityByIdIn(any(), any());
+            verifyNoInteractions(taskOutbox);
+        }
+
+        private TaskRow priorityRow(int id) {
+            return new TaskRow(id, "Task " + id, OPEN, HIGH, LocalDateTime.now(), null, null, "SYSTEM", 7L);
         }
     }
 
@@ -288,8 +612,7 @@ class TaskServiceImplTest {
                     .build();
             var expectedTaskDto = createTaskDto(task.getTitle(), task.getStatus(), task.getPriority(), task.getCreatedAt(), null);
 
-            when(taskRepository.findById(id)).thenReturn(Optional.of(task));
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            when(taskRepository.findDtoById(id)).thenReturn(Optional.of(expectedTaskDto));
 
             //When
             var dto = taskService.findTaskById(id);
@@ -298,10 +621,28 @@ class TaskServiceImplTest {
             assertThat(dto.title()).isEqualTo(expectedTitle);
         }
 
+        @Test
+        void findTaskById_shouldReadFromThePrimary_sinceTheTaskIsCached() {
+            //Given
+            var taskDto = createTaskDto("Title", OPEN, HIGH, LocalDateTime.now(), null);
+            when(taskRepository.findDtoById(1)).thenAnswer(invocation -> {
+                assertThat(PrimaryReads.isActive()).isTrue();
+                return Optional.of(taskDto);
+            });
+
+            //When
+            var dto = taskService.findTaskById(1);
+
+            //Then
+            assertThat(dto).isSameAs(taskDto);
+            assertThat(PrimaryReads.isActive()).isFalse();
+        }
+
         @Test
         void findTaskById_shouldNotFoundById_whenTaskIsAbsent() {
-            when(taskRepository.findById(1)).thenReturn(Optional.empty());
+            when(taskRepository.findDtoById(1)).thenReturn(Optional.empty());
             assertThrows(TaskNotFoundException.class, () -> taskService.findTaskById(1));
+            assertThat(outcomeCount("not_found")).isEqualTo(1);
         }
 
         @Test
@@ -325,6 +666,8 @@ class TaskServiceImplTest {
 
             //Verify
             verify(taskRepository).delete(task);
+            verify(taskStatistics).taskDeleted(task);
+            verify(taskOutbox).taskChanged(eq(TaskChangedEvent.Type.DELETED), eq(id), any(), isNull());
         }
     }
 
@@ -337,27 +680,127 @@ class TaskServiceImplTest {
             var id = 1;
             var expectedTitle = "Task1";
             var createdAt = LocalDateTime.now();
-            List<Task> tasks = List.of(
-                    Task.builder().title(expectedTitle).status(OPEN).priority(LOW).createdAt(createdAt).createdBy("SYSTEM").build()
+            var rows = List.of(
+                    new TaskRow(id, expectedTitle, OPEN, LOW, createdAt, null, null, "SYSTEM", 0L)
             );
             var expectedTaskDto = createTaskDto(expectedTitle, OPEN, LOW, createdAt, null);
 
-            when(taskRepository.findByStatus(OPEN)).thenReturn(tasks);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            when(taskRepository.findRowsByStatusAfterId(OPEN, 0, Limit.of(10))).thenReturn(rows);
 
             //When
-            var taskDtoList = taskService.findByStatus(OPEN);
+            var page = taskService.findByStatus(OPEN, TaskSort.ID, null, 10);
 
             //Then
             assertAll(
-                    () -> assertThat(taskDtoList).hasSize(id),
-                    () -> {
-                        assertNotNull(taskDtoList);
-                        assertThat(taskDtoList.getFirst().title()).isEqualTo(expectedTaskDto.title());
-                    }
+                    () -> assertThat(page.content()).hasSize(id),
+                    () -> assertThat(page.nextCursor()).isNull(),
+                    () -> assertThat(page.content().getFirst().title()).isEqualTo(expectedTaskDto.title())
             );
         }
 
+        @Test
+        void findTaskByStatus_shouldReadFromThePrimary_sinceThePageIsTaggedWithTheChangeVersion() {
+            //Given
+            when(taskRepository.findRowsByStatusAfterId(OPEN, 0, Limit.of(10))).thenAnswer(invocation -> {
+                assertThat(PrimaryReads.isActive()).isTrue();
+                return List.of(createTaskRow(1, "Task1", null));
+            });
+
+            //When
+            var page = taskService.findByStatus(OPEN, TaskSort.ID, null, 10);
+
+            //Then
+            assertThat(page.content()).hasSize(1);
+        }
+
+        @Test
+        void findTaskByStatus_shouldReturnNextCursor_whenPageIsFull() {
+            //Given
+            var rows = List.of(
+                    createTaskRow(3, "Task3", null),
+                    createTaskRow(7, "Task7", null)
+            );
+            var after = new TaskCursor(TaskSort.ID, null, 2).encode();
+
+            when(taskRepository.findRowsByStatusAfterId(OPEN, 2, Limit.of(2))).thenReturn(rows);
+
+            //When
+            var page = taskService.findByStatus(OPEN, TaskSort.ID, after, 2);
+
+            //Then
+            assertThat(TaskCursor.decode(page.nextCursor(), TaskSort.ID))
+                    .isEqualTo(new TaskCursor(TaskSort.ID, null, 7));
+        }
+
+        @Test
+        void findTaskByStatus_shouldContinueWithUndatedTasks_whenDatedTasksAreExhausted() {
+            //Given
+            var dueDate = LocalDate.now();
+            var dated = createTaskRow(5, "Dated", dueDate);
+            var undated = createTaskRow(2, "Undated", null);
+
+            when(taskRepository.findRowsByStatusFirstDated(OPEN, Limit.of(2)))
+                    .thenReturn(List.of(dated));
+            when(taskRepository.findRowsByStatusUndatedAfterId(OPEN, 0, Limit.of(1)))
+                    .thenReturn(List.of(undated));
+
+            //When
+            var page = taskService.findByStatus(OPEN, TaskSort.DUE_DATE, null, 2);
+
+            //Then
+            assertAll(
+                    () -> assertThat(page.content()).hasSize(2),
+                    () -> assertThat(TaskCursor.decode(page.nextCursor(), TaskSort.DUE_DATE))
+                            .isEqualTo(new TaskCursor(TaskSort.DUE_DATE, null, 2))
+            );
+        }
+
+        @Test
+        void findTaskByStatus_shouldResumeAfterDueDate_whenDatedCursorGiven() {
+            //Given
+            var dueDate = LocalDate.now();
+            var after = new TaskCursor(TaskSort.DUE_DATE, dueDate, 4).encode();
+
+            when(taskRepository.findRowsByStatusAfterDueDate(OPEN, dueDate, 4, Limit.of(1)))
+                    .thenReturn(List.of(createTaskRow(9, "Dated", dueDate.plusDays(1))));
+
+            //When
+            var page = taskService.findByStatus(OPEN, TaskSort.DUE_DATE, after, 1);
+
+            //Then
+            assertAll(
+                    () -> assertThat(page.content()).hasSize(1),
+                    () -> assertThat(TaskCursor.decode(page.nextCursor(), TaskSort.DUE_DATE))
+                            .isEqualTo(new TaskCursor(TaskSort.DUE_DATE, dueDate.plusDays(1), 9))
+            );
+            verify(taskRepository, never()).findRowsByStatusUndatedAfterId(any(), any(), any());
+        }
+
+        @Test
+        void findTaskByStatus_shouldRejectCursor_whenIssuedForAnotherSort() {
+            //Given
+            var after = new TaskCursor(TaskSort.ID, null, 4).encode();
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.findByStatus(OPEN, TaskSort.DUE_DATE, after, 10))
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+
+        @Test
+        void findTaskByStatus_shouldRejectCursor_whenMalformed() {
+            assertThatThrownBy(() -> taskService.findByStatus(OPEN, TaskSort.ID, "not-a-cursor", 10))
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+
+        @Test
+        void findTaskByStatus_shouldCapPageSize_whenLimitIsTooLarge() {
+            //When
+            taskService.findByStatus(OPEN, TaskSort.ID, null, 100_000);
+
+            //Then
+            verify(taskRepository).findRowsByStatusAfterId(OPEN, 0, Limit.of(TaskServiceImpl.MAX_PAGE_SIZE));
+        }
+
         @Nested
         class ValidateOnlyStatusChanged {
 
@@ -378,7 +821,7 @@ class TaskServiceImplTest {
                         .createdAt(createdAt)
                         .createdBy(createdBy)
                         .build();
-                TaskDto taskDto = new TaskDto(title, status, LOW, createdAt, updatedAt, dueDate, createdBy);
+                TaskDto taskDto = new TaskDto(title, status, LOW, createdAt, updatedAt, dueDate, createdBy, null);
 
                 //When & Then
                 assertThatThrownBy(() -> taskService.validateOnlyStatusChanged(existing, taskDto))
@@ -405,7 +848,7 @@ class TaskServiceImplTest {
                         .createdAt(createdAt)
                         .createdBy(createdBy)
                         .build();
-                TaskDto taskDto = new TaskDto(title, status, priority, createdAt, updatedAt, dueDate, createdBy);
+                TaskDto taskDto = new TaskDto(title, status, priority, createdAt, updatedAt, dueDate, createdBy, null);
 
                 //When
                 taskService.validateOnlyStatusChanged(existing, taskDto);
@@ -512,42 +955,213 @@ class TaskServiceImplTest {
             //Given
             var id = 1;
             var createdAt = LocalDateTime.now();
-            List<Task> tasks = List.of(
-                    Task.builder().title("Task2").status(OPEN).priority(HIGH).createdAt(createdAt).build()
+            var rows = List.of(
+                    new TaskRow(id, "Task2", OPEN, HIGH, createdAt, null, null, "SYSTEM", 0L)
             );
-            var expectedTaskDto = createTaskDto("Task2", OPEN, HIGH, createdAt, null);
 
-            when(taskRepository.findByPriority(HIGH)).thenReturn(tasks);
-            when(taskMapper.toDto(any(Task.class))).thenReturn(expectedTaskDto);
+            when(taskRepository.findRowsByPriorityAfterId(HIGH, 0, Limit.of(10))).thenReturn(rows);
 
             //When
-            var taskDtoList = taskService.findByPriority(HIGH);
+            var page = taskService.findByPriority(HIGH, TaskSort.ID, null, 10);
 
             //Then
             assertAll(
-                    () -> assertThat(taskDtoList).hasSize(id),
+                    () -> assertThat(page.content()).hasSize(id),
                     () -> {
-                        assertNotNull(taskDtoList);
-                        assertThat(taskDtoList.getFirst().title()).isEqualTo("Task2");
+                        assertNotNull(page.content());
+                        assertThat(page.content().getFirst().title()).isEqualTo("Task2");
                     }
             );
         }
     }
 
+    @Nested
+    class ExportTasks {
+
+        @Test
+        void exportTasks_shouldPassEveryTaskToConsumer() {
+            //Given
+            var taskDtos = List.of(
+                    createTaskDto("Task1", OPEN, LOW, null, null),
+                    createTaskDto("Task2", DONE, HIGH, null, null)
+            );
+            var exported = new ArrayList<TaskDto>();
+
+            when(taskRepository.streamAll()).thenReturn(taskDtos.stream());
+
+            //When
+            var count = taskService.exportTasks(exported::add);
+
+            //Then
+            assertAll(
+                    () -> assertThat(count).isEqualTo(2),
+                    () -> assertThat(exported).containsExactlyElementsOf(taskDtos)
+            );
+
+            //Verify
+            verifyNoInteractions(taskMapper);
+        }
+    }
+
+    @Nested
+    class FindOverdue {
+
+        @Test
+        void findOverdue_shouldLoadThePageChosenByTheTracker_inTrackerOrder() {
+            //Given
+            var yesterday = LocalDate.now().minusDays(1);
+            var lastWeek = LocalDate.now().minusDays(7);
+            when(overdueTracker.findOverdue(null, 2)).thenReturn(List.of(
+                    new TaskDueDate(7, lastWeek),
+                    new TaskDueDate(3, yesterday)));
+            when(taskRepository.findRowsByIdIn(List.of(7, 3))).thenReturn(List.of(
+                    createTaskRow(3, "Task3", yesterday),
+                    createTaskRow(7, "Task7", lastWeek)));
+
+            //When
+            var page = taskService.findOverdue(null, 2);
+
+            //Then
+            assertThat(page.content()).extracting(TaskDto::title).containsExactly("Task7", "Task3");
+            assertThat(TaskCursor.decode(page.nextCursor(), TaskSort.DUE_DATE))
+                    .isEqualTo(new TaskCursor(TaskSort.DUE_DATE, yesterday, 3));
+        }
+
+        @Test
+        void findOverdue_shouldLeaveOutAndRetrackTheTasksNoLongerOverdue_whenTheTrackerMissedTheWrite() {
+            //Given: tracked as overdue, but 4 was marked DONE, 5 re-dated and 6 deleted on another instance
+            var yesterday = LocalDate.now().minusDays(1);
+            when(overdueTracker.findOverdue(null, 10)).thenReturn(List.of(
+                    new TaskDueDate(3, yesterday),
+                    new TaskDueDate(4, yesterday),
+                    new TaskDueDate(5, yesterday),
+                    new TaskDueDate(6, yesterday)));
+            when(taskRepository.findRowsByIdIn(List.of(3, 4, 5, 6))).thenReturn(List.of(
+                    createTaskRow(3, "Task3", yesterday),
+                    new TaskRow(4, "Task4", DONE, LOW, null, null, yesterday, "SYSTEM", 1L),
+                    createTaskRow(5, "Task5", LocalDate.now().plusDays(2))));
+
+            //When
+            var page = taskService.findOverdue(null, 10);
+
+            //Then
+            assertThat(page.content()).extracting(TaskDto::title).containsExactly("Task3");
+            verify(overdueTracker).track(argThat(task -> task.getId() == 4 && task.getStatus() == DONE));
+            verify(overdueTracker).track(argThat(task -> task.getId() == 5));
+            verify(overdueTracker).untrack(6);
+        }
+
+        @Test
+        void findOverdue_shouldRejectACursorOfAnUndatedTask() {
+            //Given: issued by /status?sort=DUE_DATE once the dated tasks are listed
+            var cursor = new TaskCursor(TaskSort.DUE_DATE, null, 5).encode();
+
+            //When & Then
+            assertThatThrownBy(() -> taskService.findOverdue(cursor, 10))
+                    .isInstanceOf(InvalidCursorException.class);
+            verifyNoInteractions(overdueTracker);
+        }
+
+        @Test
+        void findOverdue_shouldReturnAnEmptyPage_forACursorDatedTodayOrLater() {
+            //Given
+            var cursor = new TaskCursor(TaskSort.DUE_DATE, LocalDate.now(), 5).encode();
+
+            //When
+            var page = taskService.findOverdue(cursor, 10);
+
+            //Then
+            assertThat(page.content()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+            verifyNoInteractions(overdueTracker);
+        }
+    }
+
+    @Nested
+    class SearchByTitle {
+
+        @Test
+        void searchByTitle_shouldListPrefixMatchesFirst_thenFillThePageWithSubstringMatches() {
+            //Given
+            when(taskRepository.findRowsByTitleStartingAfter("100\\%%", "", 0, Limit.of(3)))
+                    .thenReturn(List.of(createTaskRow(4, "100% done", null)));
+            when(taskRepository.findRowsByTitleContainingAfter("%100\\%%", "100\\%%", "", 0, Limit.of(2)))
+                    .thenReturn(List.of(createTaskRow(2, "Almost 100% done", null), createTaskRow(9, "Not 100% sure", null)));
+
+            //When
+            var page = taskService.searchByTitle(" 100% ", null, 3);
+
+            //Then
+            assertThat(page.content()).extracting(TaskDto::title)
+                    .containsExactly("100% done", "Almost 100% done", "Not 100% sure");
+            assertThat(TitleSearchCursor.decode(page.nextCursor()))
+                    .isEqualTo(new TitleSearchCursor(TitleSearchCursor.Phase.SUBSTRING, "not 100% sure", 9));
+        }
+
+        @Test
+        void searchByTitle_shouldAnswerPrefixesFromTheTitleIndex_whenItServesThem() {
+            //Given
+            when(titleIndex.servesSearches()).thenReturn(true);
+            when(titleIndex.findStartingWith("rep", new TitleIndex.Key("", 0), 1))
+                    .thenReturn(List.of(new TitleIndex.Key("report", 5)));
+            when(taskRepository.findRowsByIdIn(List.of(5))).thenReturn(List.of(createTaskRow(5, "Report", null)));
+
+            //When
+            var page = taskService.searchByTitle("Rep", null, 1);
+
+            //Then
+            assertThat(page.content()).extracting(TaskDto::title).containsExactly("Report");
+            assertThat(TitleSearchCursor.decode(page.nextCursor()).phase()).isEqualTo(TitleSearchCursor.Phase.PREFIX);
+            verify(taskRepository, never()).findRowsByTitleStartingAfter(any(), any(), any(), any());
+        }
+
+        @Test
+        void searchByTitle_shouldLeaveOutTasksRenamedWhereTheTitleIndexCouldNotSeeIt() {
+            //Given: task 5 was renamed on another instance
+            when(titleIndex.servesSearches()).thenReturn(true);
+            when(titleIndex.findStartingWith("rep", new TitleIndex.Key("", 0), 2))
+                    .thenReturn(List.of(new TitleIndex.Key("report", 5), new TitleIndex.Key("report draft", 6)));
+            when(taskRepository.findRowsByIdIn(List.of(5, 6)))
+                    .thenReturn(List.of(createTaskRow(5, "Summary", null), createTaskRow(6, "Report draft", null)));
+
+            //When
+            var page = taskService.searchByTitle("Rep", null, 2);
+
+            //Then
+            assertThat(page.content()).extracting(TaskDto::title).containsExactly("Report draft");
+        }
+
+        @Test
+        void searchByTitle_shouldReturnAnEmptyPage_whenQueryIsBlank() {
+            //When
+            var page = taskService.searchByTitle("  ", null, 10);
+
+            //Then
+            assertThat(page.content()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+            verifyNoInteractions(taskRepository);
+        }
+    }
+
+    private static TaskRow rowOf(Task task) {
+        var version = task.getVersion() == null ? 0L : task.getVersion();
+        return new TaskRow(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getCreatedAt(),
+                task.getUpdatedAt(), task.getDueDate(), task.getCreatedBy(), version);
+    }
+
     private TaskDto createTaskDto(String title, Status status, Priority priority, LocalDateTime createdAt, LocalDate dueDate) {
-        return new TaskDto(title, status, priority, createdAt, null, dueDate, "SYSTEM");
+        return new TaskDto(title, status, priority, createdAt, null, dueDate, "SYSTEM", null);
+    }
+
+    private TaskRow createTaskRow(Integer id, String title, LocalDate dueDate) {
+        return new TaskRow(id, title, OPEN, LOW, null, null, dueDate, "SYSTEM", 0L);
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get("task.outcomes").tag("outcome", outcome).counter().count();
     }
 
-    private List<TaskDto> mapToTaskDto(List<Task> taskList) {
-        return taskList.stream().map(task ->
-                new TaskDto(
-                        task.getTitle(),
-                        task.getStatus(),
-                        task.getPriority(),
-                        task.getCreatedAt(),
-                        task.getUpdatedAt(),
-                        task.getDueDate(),
-                        task.getCreatedBy()
-                        )).toList();
+    private static List<Optional<Task>> insertedAll(List<Task> tasks) {
+        return tasks.stream().map(Optional::of).toList();
     }
 }